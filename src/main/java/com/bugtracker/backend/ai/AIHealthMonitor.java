@@ -0,0 +1,142 @@
+package com.bugtracker.backend.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Cached view of the remote AI service's health, fed by a scheduled /health probe and by the
+ * outcome of real calls. Readers get an immutable snapshot from one volatile read, so every
+ * AI path can check availability without I/O. The service is marked down after
+ * {@code failure-threshold} consecutive failures; only the probe talks to it then, and
+ * its first success marks it up again.
+ */
+@Component
+public class AIHealthMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIHealthMonitor.class);
+    private static final double LATENCY_ALPHA = 0.2;
+    private static final double ERROR_ALPHA = 0.1;
+
+    private final AIServiceClient aiServiceClient;
+    private final int failureThreshold;
+    // Optimistic until the first probe completes
+    private final AtomicReference<Snapshot> snapshot =
+        new AtomicReference<>(new Snapshot(true, 0.0, 0.0, 0, null, null));
+
+    /**
+     * Immutable health state; replaced as a whole on every observation
+     */
+    public static final class Snapshot {
+        private final boolean available;
+        private final double latencyEwmaMs;
+        private final double errorRate;
+        private final int consecutiveFailures;
+        private final Instant lastObservedAt;
+        private final String lastError;
+
+        Snapshot(boolean available, double latencyEwmaMs, double errorRate, int consecutiveFailures,
+                 Instant lastObservedAt, String lastError) {
+            this.available = available;
+            this.latencyEwmaMs = latencyEwmaMs;
+            this.errorRate = errorRate;
+            this.consecutiveFailures = consecutiveFailures;
+            this.lastObservedAt = lastObservedAt;
+            this.lastError = lastError;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public double getLatencyEwmaMs() {
+            return latencyEwmaMs;
+        }
+
+        /**
+         * Exponentially weighted share of failed probes and calls, roughly the last ten
+         */
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public Instant getLastObservedAt() {
+            return lastObservedAt;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+    }
+
+    public AIHealthMonitor(
+            AIServiceClient aiServiceClient,
+            @Value("${ai.health.failure-threshold:3}") int failureThreshold) {
+        this.aiServiceClient = aiServiceClient;
+        this.failureThreshold = Math.max(1, failureThreshold);
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    public boolean isAvailable() {
+        return snapshot.get().isAvailable();
+    }
+
+    @Scheduled(fixedDelayString = "${ai.health.probe-interval-ms:15000}")
+    public void probe() {
+        long start = System.nanoTime();
+        boolean healthy = aiServiceClient.isServiceAvailable();
+        record(healthy, System.nanoTime() - start, healthy ? null : "Health check failed");
+    }
+
+    /**
+     * Run a remote call and record its outcome; a null result counts as a failure
+     */
+    public <T> T track(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            record(result != null, System.nanoTime() - start, result != null ? null : "Call returned no result");
+            return result;
+        } catch (RuntimeException e) {
+            record(false, System.nanoTime() - start, e.getMessage());
+            throw e;
+        }
+    }
+
+    private void record(boolean success, long latencyNanos, String error) {
+        double latencyMs = latencyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        while (true) {
+            Snapshot previous = snapshot.get();
+            int failures = success ? 0 : previous.consecutiveFailures + 1;
+            double latency = previous.lastObservedAt == null ? latencyMs
+                : previous.latencyEwmaMs + LATENCY_ALPHA * (latencyMs - previous.latencyEwmaMs);
+            double errorRate = previous.errorRate + ERROR_ALPHA * ((success ? 0.0 : 1.0) - previous.errorRate);
+            Snapshot next = new Snapshot(success || failures < failureThreshold, latency, errorRate, failures,
+                Instant.now(), success ? previous.lastError : error);
+            if (snapshot.compareAndSet(previous, next)) {
+                if (previous.available != next.available) {
+                    if (next.available) {
+                        logger.info("AI service is available again");
+                    } else {
+                        logger.warn("AI service marked unavailable after {} failures: {}", failures, error);
+                    }
+                }
+                return;
+            }
+        }
+    }
+}
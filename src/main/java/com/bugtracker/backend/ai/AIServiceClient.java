@@ -2,6 +2,7 @@ package com.bugtracker.backend.ai;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Data;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,12 +25,14 @@ public class AIServiceClient {
     
     private static final Logger logger = LoggerFactory.getLogger(AIServiceClient.class);
     private final RestTemplate restTemplate;
+    private final RestTemplate probeRestTemplate;
     private final String aiServiceUrl;
     private final int timeout;
     
     public AIServiceClient(
             @Value("${ai.service.url:http://localhost:8000}") String aiServiceUrl,
-            @Value("${ai.service.timeout:5000}") int timeout) {
+            @Value("${ai.service.timeout:5000}") int timeout,
+            @Value("${ai.health.probe-timeout-ms:3000}") int probeTimeout) {
         this.aiServiceUrl = aiServiceUrl;
         this.timeout = timeout;
         
@@ -39,6 +42,12 @@ public class AIServiceClient {
         factory.setReadTimeout(timeout);
         this.restTemplate = new RestTemplate(factory);
         
+        // Health checks must fail fast rather than wait out the analysis timeout
+        SimpleClientHttpRequestFactory probeFactory = new SimpleClientHttpRequestFactory();
+        probeFactory.setConnectTimeout(probeTimeout);
+        probeFactory.setReadTimeout(probeTimeout);
+        this.probeRestTemplate = new RestTemplate(probeFactory);
+        
         logger.info("AIServiceClient initialized with URL: {} and timeout: {}ms", aiServiceUrl, timeout);
     }
     
@@ -80,7 +89,8 @@ public class AIServiceClient {
         private String priority;
         private List<String> tags;
         private String summary;
-        private List<Double> embedding;
+        @JsonDeserialize(using = FloatArrayDeserializer.class)
+        private float[] embedding;
         private Double confidence;  // ML model confidence score
         private String modelVersion;  // Model version for tracking
     }
@@ -88,19 +98,20 @@ public class AIServiceClient {
     @Data
     @JsonIgnoreProperties(ignoreUnknown = true)
     static class EmbeddingResponse {
-        private List<Double> embedding;
+        @JsonDeserialize(using = FloatArrayDeserializer.class)
+        private float[] embedding;
     }
     
     /**
-     * Check if AI service is available
+     * Check if AI service is available (live call; use {@link AIHealthMonitor} for the cached state)
      */
     public boolean isServiceAvailable() {
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(
+            ResponseEntity<Map> response = probeRestTemplate.getForEntity(
                 aiServiceUrl + "/health", Map.class);
             return response.getStatusCode().is2xxSuccessful();
         } catch (Exception e) {
-            logger.warn("AI service health check failed: {}", e.getMessage());
+            logger.debug("AI service health check failed: {}", e.getMessage());
             return false;
         }
     }
@@ -224,7 +235,7 @@ public class AIServiceClient {
     /**
      * Generate embedding vector for similarity search
      */
-    public List<Double> generateEmbedding(String bugDescription) {
+    public float[] generateEmbedding(String bugDescription) {
         try {
             ComprehensiveAnalysisRequest request = new ComprehensiveAnalysisRequest(bugDescription);
             HttpHeaders headers = new HttpHeaders();
@@ -0,0 +1,329 @@
+package com.bugtracker.backend.ai;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Schedules calls to the remote AI service so background traffic cannot crowd out users.
+ * Each work class has its own bounded queue, a weight and a concurrency limit. Free slots go
+ * to the class with the most accumulated credit (smooth weighted round robin), and the
+ * background classes are capped below the total so interactive calls always find a slot.
+ * Work still queued when its deadline passes fails at that moment, by a timer, instead of
+ * waiting for a free slot to be sent late.
+ */
+@Component
+public class AIWorkScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIWorkScheduler.class);
+
+    public enum WorkClass {
+        /** A user waiting on the response, e.g. /api/bugs/ai/analyze */
+        INTERACTIVE,
+        /** Enrichment of a bug being created */
+        CREATE_ENRICHMENT,
+        /** Backfills and other bulk jobs */
+        BATCH
+    }
+
+    private final int maxConcurrency;
+    private final Lane[] lanes;
+    private final ExecutorService workers;
+    private final ScheduledThreadPoolExecutor deadlines;
+    private int running;
+
+    private static final class Task<T> {
+        final Supplier<T> work;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+        final long deadline;
+        ScheduledFuture<?> expiry;
+
+        Task(Supplier<T> work, long deadlineNanos) {
+            this.work = work;
+            this.deadline = enqueuedAt + deadlineNanos;
+        }
+
+        /**
+         * Run the work, then call {@code finished} before completing the future, so dependent
+         * stages (e.g. a similar-bug lookup) run after the slot is free
+         */
+        void run(Runnable finished) {
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = work.get();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                finished.run();
+            }
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+
+    private static final class Lane {
+        final WorkClass workClass;
+        final int weight;
+        final int limit;
+        final int capacity;
+        final long deadlineNanos;
+        final ArrayDeque<Task<?>> queue = new ArrayDeque<>();
+        int running;
+        long credit;
+
+        final LongAdder submitted = new LongAdder();
+        final LongAdder started = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder expired = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+
+        Lane(WorkClass workClass, int weight, int limit, int capacity, long deadlineMs) {
+            this.workClass = workClass;
+            this.weight = Math.max(1, weight);
+            this.limit = Math.max(1, limit);
+            this.capacity = Math.max(1, capacity);
+            this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        }
+    }
+
+    /**
+     * Per-class settings are comma-separated in {@link WorkClass} order
+     */
+    public AIWorkScheduler(
+            @Value("${ai.scheduler.max-concurrency:8}") int maxConcurrency,
+            @Value("${ai.scheduler.weights:8,3,1}") int[] weights,
+            @Value("${ai.scheduler.limits:8,4,2}") int[] limits,
+            @Value("${ai.scheduler.queue-capacity:100,500,1000}") int[] capacities,
+            @Value("${ai.scheduler.deadline-ms:5000,15000,120000}") long[] deadlines) {
+        WorkClass[] classes = WorkClass.values();
+        if (weights.length != classes.length || limits.length != classes.length
+                || capacities.length != classes.length || deadlines.length != classes.length) {
+            throw new IllegalArgumentException("ai.scheduler settings need one value per work class " + List.of(classes));
+        }
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.lanes = new Lane[classes.length];
+        for (WorkClass workClass : classes) {
+            int i = workClass.ordinal();
+            lanes[i] = new Lane(workClass, weights[i], Math.min(limits[i], this.maxConcurrency), capacities[i], deadlines[i]);
+        }
+        this.workers = Executors.newFixedThreadPool(this.maxConcurrency, daemon("ai-work"));
+        this.deadlines = new ScheduledThreadPoolExecutor(1, daemon("ai-work-deadline"));
+        // Started work cancels its timer; don't keep those around until they would have fired
+        this.deadlines.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Queue work under the class's default deadline
+     */
+    public <T> CompletableFuture<T> submit(WorkClass workClass, Supplier<T> work) {
+        return enqueue(workClass, work, lanes[workClass.ordinal()].deadlineNanos);
+    }
+
+    /**
+     * Queue work; the future fails with {@link RejectedExecutionException} when the class
+     * queue is full or the work does not start within {@code deadlineMs}
+     */
+    public <T> CompletableFuture<T> submit(WorkClass workClass, Supplier<T> work, long deadlineMs) {
+        return enqueue(workClass, work, TimeUnit.MILLISECONDS.toNanos(deadlineMs));
+    }
+
+    private <T> CompletableFuture<T> enqueue(WorkClass workClass, Supplier<T> work, long deadlineNanos) {
+        Lane lane = lanes[workClass.ordinal()];
+        Task<T> task = new Task<>(work, deadlineNanos);
+        synchronized (this) {
+            if (lane.queue.size() >= lane.capacity) {
+                lane.rejected.increment();
+                task.future.completeExceptionally(
+                    new RejectedExecutionException(workClass + " queue is full (" + lane.capacity + ")"));
+                return task.future;
+            }
+            lane.queue.add(task);
+            lane.submitted.increment();
+            try {
+                task.expiry = deadlines.schedule(() -> expire(lane, task), deadlineNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; shutdown() fails whatever is still queued
+            }
+        }
+        dispatch();
+        return task.future;
+    }
+
+    /**
+     * Deadline timer: fail the task if it is still waiting in its queue
+     */
+    private void expire(Lane lane, Task<?> task) {
+        synchronized (this) {
+            if (!lane.queue.remove(task)) {
+                return;
+            }
+            if (!task.future.isDone()) {
+                lane.expired.increment();
+            }
+        }
+        task.future.completeExceptionally(new RejectedExecutionException("Deadline passed while queued"));
+    }
+
+    /**
+     * Hand queued work to free slots; futures are completed outside the lock
+     */
+    private void dispatch() {
+        List<Task<?>> dropped = new ArrayList<>();
+        List<Task<?>> started = new ArrayList<>();
+        List<Lane> startedLanes = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            while (running < maxConcurrency) {
+                Lane lane = nextLane(now, dropped);
+                if (lane == null) {
+                    break;
+                }
+                Task<?> task = lane.queue.poll();
+                if (task.expiry != null) {
+                    task.expiry.cancel(false);
+                }
+                lane.waitNanos.add(now - task.enqueuedAt);
+                lane.started.increment();
+                lane.running++;
+                running++;
+                started.add(task);
+                startedLanes.add(lane);
+            }
+        }
+        for (Task<?> task : dropped) {
+            task.future.completeExceptionally(new RejectedExecutionException("Deadline passed while queued"));
+        }
+        for (int i = 0; i < started.size(); i++) {
+            Task<?> task = started.get(i);
+            Lane lane = startedLanes.get(i);
+            try {
+                workers.execute(() -> task.run(() -> release(lane)));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                task.future.completeExceptionally(e);
+                release(lane);
+            }
+        }
+    }
+
+    /**
+     * Pick the eligible class with the most credit, after discarding expired or abandoned heads
+     * (a head can pass its deadline just before its timer runs)
+     */
+    private Lane nextLane(long now, List<Task<?>> dropped) {
+        Lane best = null;
+        int totalWeight = 0;
+        for (Lane lane : lanes) {
+            Task<?> head;
+            while ((head = lane.queue.peek()) != null && (head.future.isDone() || now - head.deadline > 0)) {
+                lane.queue.poll();
+                if (head.expiry != null) {
+                    head.expiry.cancel(false);
+                }
+                if (!head.future.isDone()) {
+                    lane.expired.increment();
+                    dropped.add(head);
+                }
+            }
+            if (head == null || lane.running >= lane.limit) {
+                continue;
+            }
+            lane.credit += lane.weight;
+            totalWeight += lane.weight;
+            if (best == null || lane.credit > best.credit) {
+                best = lane;
+            }
+        }
+        if (best != null) {
+            best.credit -= totalWeight;
+        }
+        return best;
+    }
+
+    private void release(Lane lane) {
+        synchronized (this) {
+            lane.running--;
+            running--;
+        }
+        lane.completed.increment();
+        dispatch();
+    }
+
+    /**
+     * Queue depth, in-flight work and drop counters per class
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("running", running);
+            stats.put("maxConcurrency", maxConcurrency);
+            for (Lane lane : lanes) {
+                long started = lane.started.sum();
+                Map<String, Object> laneStats = new LinkedHashMap<>();
+                laneStats.put("queued", lane.queue.size());
+                laneStats.put("running", lane.running);
+                laneStats.put("limit", lane.limit);
+                laneStats.put("weight", lane.weight);
+                laneStats.put("submitted", lane.submitted.sum());
+                laneStats.put("completed", lane.completed.sum());
+                laneStats.put("rejected", lane.rejected.sum());
+                laneStats.put("expired", lane.expired.sum());
+                laneStats.put("meanQueueWaitMs", started <= 0 ? 0.0
+                    : lane.waitNanos.sum() / (double) started / TimeUnit.MILLISECONDS.toNanos(1));
+                stats.put(lane.workClass.name().toLowerCase(), laneStats);
+            }
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        deadlines.shutdownNow();
+        List<Task<?>> pending = new ArrayList<>();
+        synchronized (this) {
+            for (Lane lane : lanes) {
+                pending.addAll(lane.queue);
+                lane.queue.clear();
+            }
+        }
+        for (Task<?> task : pending) {
+            task.future.completeExceptionally(new RejectedExecutionException("AI work scheduler stopped"));
+        }
+        logger.info("AI work scheduler stopped, {} queued calls abandoned", pending.size());
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
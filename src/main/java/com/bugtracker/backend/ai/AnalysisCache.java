@@ -0,0 +1,84 @@
+package com.bugtracker.backend.ai;
+
+import com.bugtracker.backend.payload.response.AIAnalysisResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of analyses keyed by the analyzed text, so a text repeated across requests (or
+ * asked for both priority and severity) is not analyzed again. Results served after a failed
+ * escalation are not stored. Entries expire after a TTL so rule and model updates show through.
+ * Cached instances are never handed out: callers get copies they may modify.
+ */
+@Component
+public class AnalysisCache {
+
+    private final int capacity;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private static final class Entry {
+        final AIAnalysisResponse analysis;
+        final long expiresAt;
+
+        Entry(AIAnalysisResponse analysis, long expiresAt) {
+            this.analysis = analysis;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public AnalysisCache(
+            @Value("${ai.analysis-cache.size:1000}") int capacity,
+            @Value("${ai.analysis-cache.ttl-ms:600000}") long ttlMs) {
+        this.capacity = Math.max(1, capacity);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > AnalysisCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Copy of the cached analysis, or null on a miss
+     */
+    public AIAnalysisResponse get(String text) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(text);
+            if (entry != null && System.nanoTime() - entry.expiresAt > 0) {
+                entries.remove(text);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.analysis.copy();
+    }
+
+    public void put(String text, AIAnalysisResponse analysis) {
+        Entry entry = new Entry(analysis.copy(), System.nanoTime() + ttlNanos);
+        synchronized (entries) {
+            entries.put(text, entry);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
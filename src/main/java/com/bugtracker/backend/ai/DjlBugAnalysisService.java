@@ -1,7 +1,9 @@
 package com.bugtracker.backend.ai;
 
-import ai.djl.modality.Classifications;
-import ai.djl.repository.zoo.ZooModel;
+import com.bugtracker.backend.payload.response.AIAnalysisResponse;
+import com.bugtracker.backend.search.BugClusterIndex;
+import com.bugtracker.backend.search.HybridRetriever;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
@@ -11,70 +13,145 @@ import java.util.*;
 @ConditionalOnProperty(name = "ai.enabled", havingValue = "true", matchIfMissing = false)
 public class DjlBugAnalysisService implements BugAnalysisService {
     
-    // We're removing the model loading since it's causing issues
-    // private ZooModel<String, Classifications> model;
+    static final String RULES_MODEL_VERSION = "local-rules";
+    static final String DJL_MODEL_VERSION = "local-djl";
+    
+    // Local DJL models, present only when ai.local.enabled=true
+    @Autowired(required = false)
+    private LocalModelInference localModel;
+    
+    @Autowired
+    private TriageRuleEngine ruleEngine;
+    
+    @Autowired
+    private EntityExtractor entityExtractor;
+    
+    @Autowired
+    private HybridRetriever similarBugRetriever;
+    
+    @Autowired
+    private BugClusterIndex clusterIndex;
+    
+    /**
+     * Local analysis together with whether any triage rule matched the text
+     */
+    static final class LocalAnalysis {
+        final AIAnalysisResponse analysis;
+        final boolean ruleMatched;
+
+        LocalAnalysis(AIAnalysisResponse analysis, boolean ruleMatched) {
+            this.analysis = analysis;
+            this.ruleMatched = ruleMatched;
+        }
+    }
+    
+    /**
+     * Full local analysis with a confidence score, used as the first tier of TieredBugAnalysisService.
+     * Model confidence is the lower of the two class probabilities; rule confidence is the
+     * weighted vote share of the winning labels (0.0 when nothing matched).
+     */
+    public AIAnalysisResponse analyze(String bugDescription) {
+        return analyzeLocal(bugDescription).analysis;
+    }
+    
+    LocalAnalysis analyzeLocal(String bugDescription) {
+        TriageResult rules = ruleEngine.evaluate(bugDescription);
+        if (localModel != null && localModel.isClassifierReady()) {
+            return combine(rules, localModel.predictPriority(bugDescription), localModel.predictSeverity(bugDescription));
+        }
+        return combine(rules, null, null);
+    }
+    
+    /**
+     * Local analysis of many texts, in input order. The classifiers run one batched forward
+     * pass per model instead of one per text; if a batch cannot run, the rules answer.
+     */
+    List<LocalAnalysis> analyzeLocal(List<String> bugDescriptions) {
+        List<LocalModelInference.Prediction> priorities = null;
+        List<LocalModelInference.Prediction> severities = null;
+        if (localModel != null && localModel.isClassifierReady() && !bugDescriptions.isEmpty()) {
+            priorities = localModel.predictPriority(bugDescriptions);
+            severities = priorities != null ? localModel.predictSeverity(bugDescriptions) : null;
+        }
+        List<LocalAnalysis> results = new ArrayList<>(bugDescriptions.size());
+        for (int i = 0; i < bugDescriptions.size(); i++) {
+            results.add(combine(ruleEngine.evaluate(bugDescriptions.get(i)),
+                severities != null ? priorities.get(i) : null,
+                severities != null ? severities.get(i) : null));
+        }
+        return results;
+    }
+    
+    /**
+     * Model labels when both predictions are present, otherwise the rules' labels
+     */
+    private static LocalAnalysis combine(TriageResult rules, LocalModelInference.Prediction priority,
+                                         LocalModelInference.Prediction severity) {
+        boolean ruleMatched = rules.getMatchedRules() > 0;
+        AIAnalysisResponse analysis = new AIAnalysisResponse();
+        analysis.setTags(rules.getTags());
+        
+        if (priority != null && severity != null) {
+            analysis.setPriority(priority.getLabel());
+            analysis.setSeverity(severity.getLabel());
+            analysis.setConfidence(Math.min(priority.getProbability(), severity.getProbability()));
+            analysis.setModelVersion(DJL_MODEL_VERSION);
+            return new LocalAnalysis(analysis, ruleMatched);
+        }
+        
+        analysis.setPriority(rules.getPriority() != null ? rules.getPriority() : "MEDIUM");
+        analysis.setSeverity(rules.getSeverity() != null ? rules.getSeverity() : "NORMAL");
+        analysis.setConfidence(rules.getConfidence());
+        analysis.setModelVersion(RULES_MODEL_VERSION);
+        return new LocalAnalysis(analysis, ruleMatched);
+    }
     
     @Override
     public String predictPriority(String bugDescription) {
-        // Simple rule-based priority prediction
-        String lowerDesc = bugDescription.toLowerCase();
-        
-        if (lowerDesc.contains("crash") || lowerDesc.contains("data loss") || lowerDesc.contains("security")) {
-            return "HIGH";
-        } else if (lowerDesc.contains("not working") || lowerDesc.contains("error")) {
-            return "MEDIUM";
-        } else if (lowerDesc.contains("suggestion") || lowerDesc.contains("enhancement")) {
-            return "LOW";
+        if (localModel != null && localModel.isClassifierReady()) {
+            LocalModelInference.Prediction prediction = localModel.predictPriority(bugDescription);
+            if (prediction != null) {
+                return prediction.getLabel();
+            }
         }
-        return "MEDIUM";
+        
+        String priority = ruleEngine.evaluate(bugDescription).getPriority();
+        return priority != null ? priority : "MEDIUM";
     }
     
     @Override
     public String predictSeverity(String bugDescription) {
-        // Simple rule-based severity prediction
-        String lowerDesc = bugDescription.toLowerCase();
-        
-        if (lowerDesc.contains("crash") || lowerDesc.contains("data loss")) {
-            return "CRITICAL";
-        } else if (lowerDesc.contains("error") || lowerDesc.contains("not working")) {
-            return "MAJOR";
-        } else if (lowerDesc.contains("cosmetic") || lowerDesc.contains("typo")) {
-            return "MINOR";
-        } else if (lowerDesc.contains("suggestion") || lowerDesc.contains("enhancement")) {
-            return "ENHANCEMENT";
+        if (localModel != null && localModel.isClassifierReady()) {
+            LocalModelInference.Prediction prediction = localModel.predictSeverity(bugDescription);
+            if (prediction != null) {
+                return prediction.getLabel();
+            }
         }
-        return "NORMAL";
+        
+        String severity = ruleEngine.evaluate(bugDescription).getSeverity();
+        return severity != null ? severity : "NORMAL";
     }
     
     @Override
     public Map<String, List<String>> extractEntities(String bugDescription) {
-        // Simple entity extraction (can be expanded)
-        Map<String, List<String>> entities = new HashMap<>();
-        // Add any simple pattern matching here if needed
-        return entities;
+        // Local NER + pattern extraction, no network hop
+        return entityExtractor.extract(bugDescription);
     }
     
     @Override
     public List<SimilarBug> findSimilarBugs(String bugDescription, int limit) {
-        // Return empty list since we're not doing similarity matching
-        return Collections.emptyList();
+        // BM25 + hashing TF-IDF vectors kept in memory, no model or network needed
+        List<SimilarBug> similarBugs = new ArrayList<>();
+        similarBugRetriever.search(bugDescription, limit)
+            .forEach(hit -> similarBugs.add(new SimilarBug(hit.getId(), hit.getScore())));
+        return similarBugs;
     }
     
     @Override
     public List<String> suggestSolutions(String bugDescription) {
-        // Simple solution suggestions based on keywords
-        List<String> suggestions = new ArrayList<>();
-        String lowerDesc = bugDescription.toLowerCase();
-        
-        if (lowerDesc.contains("null pointer")) {
-            suggestions.add("Check for null references before accessing object properties or methods.");
-            suggestions.add("Add null checks in the code where the error occurs.");
-        }
-        
-        if (lowerDesc.contains("timeout")) {
-            suggestions.add("Increase the timeout threshold in the configuration.");
-            suggestions.add("Optimize the database queries that might be causing the delay.");
-        }
+        // Resolved bugs from the same cluster first, then the keyword rule table
+        List<String> suggestions = new ArrayList<>(clusterIndex.suggestSolutions(bugDescription, 3));
+        suggestions.addAll(ruleEngine.evaluate(bugDescription).getSuggestions());
         
         // Default suggestions if no specific ones match
         if (suggestions.isEmpty()) {
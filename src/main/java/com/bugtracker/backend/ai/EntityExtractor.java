@@ -0,0 +1,181 @@
+package com.bugtracker.backend.ai;
+
+import jakarta.annotation.PostConstruct;
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.tokenize.SimpleTokenizer;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.tokenize.TokenizerModel;
+import opennlp.tools.util.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local entity extraction for bug texts: OpenNLP NER (optional, from local model files)
+ * plus pattern extraction for exception classes, stack-frame packages, components, versions and OS names.
+ * Models are loaded once; TokenizerME and NameFinderME are not thread-safe, so they are shared
+ * through pools of thread-confined instances.
+ */
+@Component
+public class EntityExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityExtractor.class);
+
+    private static final Pattern EXCEPTION = Pattern.compile(
+        "\\b((?:[a-zA-Z_$][\\w$]*\\.)*[A-Z][\\w$]*(?:Exception|Error))\\b");
+    private static final Pattern STACK_FRAME = Pattern.compile(
+        "\\bat\\s+([a-z_$][\\w$]*(?:\\.[a-z_$][\\w$]*)*)\\.[A-Z][\\w$]*\\.[\\w$<>]+\\(");
+    private static final Pattern COMPONENT = Pattern.compile(
+        "\\b([A-Z][A-Za-z0-9]*(?:Service|Controller|Repository|Component|Manager|Handler|Module|Client|Filter))\\b");
+    private static final Pattern VERSION = Pattern.compile(
+        "(?i)\\b(?:v|version\\s*)(\\d+(?:\\.\\d+)+(?:[-+][0-9a-z.]+)?)\\b|\\b(\\d+\\.\\d+\\.\\d+(?:\\.\\d+)?(?:[-+][0-9A-Za-z.]+)?)\\b");
+    private static final Pattern OS = Pattern.compile(
+        "(?i)\\b(windows(?:\\s+(?:\\d+|xp|vista|server))?|mac\\s?os(?:\\s?x)?|os\\s?x|linux|ubuntu|debian|fedora|centos|red\\s?hat|android|ipados|ios|chrome\\s?os)\\b");
+
+    private final Path modelDir;
+    private final int poolSize;
+    private final long borrowTimeoutMs;
+
+    private InstancePool<TokenizerME> tokenizers;
+    private final Map<String, InstancePool<NameFinderME>> nameFinders = new LinkedHashMap<>();
+
+    public EntityExtractor(
+            @Value("${ai.nlp.model-dir:models/nlp}") String modelDir,
+            @Value("${ai.nlp.pool-size:4}") int poolSize,
+            @Value("${ai.nlp.borrow-timeout-ms:50}") long borrowTimeoutMs) {
+        this.modelDir = Paths.get(modelDir);
+        this.poolSize = Math.max(1, poolSize);
+        this.borrowTimeoutMs = borrowTimeoutMs;
+    }
+
+    @PostConstruct
+    public void init() {
+        Path tokenizerModel = modelDir.resolve("en-token.bin");
+        if (Files.isRegularFile(tokenizerModel)) {
+            try {
+                TokenizerModel model = new TokenizerModel(tokenizerModel);
+                tokenizers = new InstancePool<>(poolSize, borrowTimeoutMs, () -> new TokenizerME(model));
+                logger.info("Loaded OpenNLP tokenizer from {}", tokenizerModel);
+            } catch (IOException e) {
+                logger.error("Failed to load tokenizer model {}: {}", tokenizerModel, e.getMessage());
+            }
+        }
+
+        // Every *.bin under ner/ is a name finder; the model decides the entity types it emits
+        Path nerDir = modelDir.resolve("ner");
+        if (Files.isDirectory(nerDir)) {
+            try (DirectoryStream<Path> models = Files.newDirectoryStream(nerDir, "*.bin")) {
+                for (Path path : models) {
+                    try {
+                        TokenNameFinderModel model = new TokenNameFinderModel(path);
+                        nameFinders.put(path.getFileName().toString(),
+                            new InstancePool<>(poolSize, borrowTimeoutMs, () -> new NameFinderME(model)));
+                        logger.info("Loaded OpenNLP name finder from {}", path);
+                    } catch (IOException e) {
+                        logger.error("Failed to load NER model {}: {}", path, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Failed to list NER models in {}: {}", nerDir, e.getMessage());
+            }
+        }
+
+        if (tokenizers == null && nameFinders.isEmpty()) {
+            logger.info("No OpenNLP models in {}; using pattern extraction only", modelDir);
+        }
+    }
+
+    /**
+     * Extract entities keyed by type: components, exceptions, packages, versions, os,
+     * plus any types produced by the NER models
+     */
+    public Map<String, List<String>> extract(String text) {
+        Map<String, Set<String>> entities = new LinkedHashMap<>();
+        if (text == null || text.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        collect(entities, "exceptions", EXCEPTION, text, 1);
+        collect(entities, "packages", STACK_FRAME, text, 1);
+        collect(entities, "components", COMPONENT, text, 1);
+        collectVersions(entities, text);
+        collectOs(entities, text);
+
+        if (!nameFinders.isEmpty()) {
+            String[] tokens = tokenize(text);
+            for (InstancePool<NameFinderME> pool : nameFinders.values()) {
+                NameFinderME finder = pool.borrow();
+                if (finder == null) {
+                    continue;  // all busy: skip NER rather than block the caller
+                }
+                try {
+                    Span[] spans = finder.find(tokens);
+                    String[] names = Span.spansToStrings(spans, tokens);
+                    for (int i = 0; i < spans.length; i++) {
+                        String type = spans[i].getType() != null ? spans[i].getType() : "entities";
+                        // Custom bug-tracker models tag components with type "component"
+                        String key = "component".equals(type) ? "components" : type;
+                        entities.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(names[i]);
+                    }
+                } finally {
+                    // Adaptive data is per document; clear it before the instance is reused
+                    finder.clearAdaptiveData();
+                    pool.release(finder);
+                }
+            }
+        }
+
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        entities.forEach((type, values) -> result.put(type, new ArrayList<>(values)));
+        return result;
+    }
+
+    private String[] tokenize(String text) {
+        if (tokenizers != null) {
+            TokenizerME tokenizer = tokenizers.borrow();
+            if (tokenizer != null) {
+                try {
+                    return tokenizer.tokenize(text);
+                } finally {
+                    tokenizers.release(tokenizer);
+                }
+            }
+        }
+        // SimpleTokenizer is stateless and thread-safe
+        return SimpleTokenizer.INSTANCE.tokenize(text);
+    }
+
+    private static void collect(Map<String, Set<String>> entities, String key, Pattern pattern, String text, int group) {
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            entities.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(matcher.group(group));
+        }
+    }
+
+    private static void collectVersions(Map<String, Set<String>> entities, String text) {
+        Matcher matcher = VERSION.matcher(text);
+        while (matcher.find()) {
+            String version = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+            entities.computeIfAbsent("versions", k -> new LinkedHashSet<>()).add(version);
+        }
+    }
+
+    private static void collectOs(Map<String, Set<String>> entities, String text) {
+        Matcher matcher = OS.matcher(text);
+        while (matcher.find()) {
+            String os = matcher.group(1).toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+            entities.computeIfAbsent("os", k -> new LinkedHashSet<>()).add(os);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.bugtracker.backend.ai;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads a JSON number array straight into a {@code float[]} from the token stream: no boxed
+ * Doubles and no intermediate list. Values accumulate in a per-thread scratch buffer, so an
+ * embedding costs exactly one allocation of its final size.
+ */
+public class FloatArrayDeserializer extends StdDeserializer<float[]> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // Larger scratch buffers are not kept, so one oversized response does not pin memory
+    private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+    private static final ThreadLocal<float[]> SCRATCH = ThreadLocal.withInitial(() -> new float[INITIAL_CAPACITY]);
+
+    public FloatArrayDeserializer() {
+        super(float[].class);
+    }
+
+    @Override
+    public float[] deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartArrayToken()) {
+            return (float[]) ctxt.handleUnexpectedToken(float[].class, p);
+        }
+        float[] buffer = SCRATCH.get();
+        int size = 0;
+        JsonToken token;
+        while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                return (float[]) ctxt.handleUnexpectedToken(float[].class, p);
+            }
+            float value;
+            if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+                value = p.getFloatValue();
+            } else if (token == JsonToken.VALUE_NULL) {
+                value = 0f;
+            } else {
+                return (float[]) ctxt.handleUnexpectedToken(float[].class, p);
+            }
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                if (buffer.length <= MAX_RETAINED_CAPACITY) {
+                    SCRATCH.set(buffer);
+                }
+            }
+            buffer[size++] = value;
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+}
@@ -0,0 +1,192 @@
+package com.bugtracker.backend.ai;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pure-Java text embedder using the hashing trick: word unigrams and character trigrams are
+ * hashed into a fixed number of signed buckets and weighted by TF-IDF, then L2-normalized.
+ * Document frequencies are kept per bucket and updated incrementally as bugs are added and removed.
+ * Needs no model and no network, so it doubles as the fallback when the remote embedder is down.
+ */
+@Component
+public class HashingEmbedder {
+
+    private final int dimensions;
+    private final int mask;
+    private final AtomicIntegerArray documentFrequency;
+    private final AtomicInteger documentCount = new AtomicInteger();
+
+    public HashingEmbedder(@Value("${ai.local-embedding.dimensions:1024}") int dimensions) {
+        if (Integer.bitCount(dimensions) != 1) {
+            throw new IllegalArgumentException("ai.local-embedding.dimensions must be a power of two: " + dimensions);
+        }
+        this.dimensions = dimensions;
+        this.mask = dimensions - 1;
+        this.documentFrequency = new AtomicIntegerArray(dimensions);
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public int getDocumentCount() {
+        return documentCount.get();
+    }
+
+    /**
+     * Distinct buckets hit by the text, i.e. what the text contributes to document frequencies
+     */
+    public int[] distinctBuckets(String text) {
+        int[] counts = new int[dimensions];
+        countFeatures(text, counts, null);
+        int n = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                n++;
+            }
+        }
+        int[] buckets = new int[n];
+        for (int i = 0, j = 0; i < dimensions; i++) {
+            if (counts[i] > 0) {
+                buckets[j++] = i;
+            }
+        }
+        return buckets;
+    }
+
+    public void addDocument(int[] buckets) {
+        for (int bucket : buckets) {
+            documentFrequency.incrementAndGet(bucket);
+        }
+        documentCount.incrementAndGet();
+    }
+
+    public void removeDocument(int[] buckets) {
+        for (int bucket : buckets) {
+            documentFrequency.decrementAndGet(bucket);
+        }
+        documentCount.decrementAndGet();
+    }
+
+    /**
+     * Copy of the per-bucket document frequencies, for index snapshots
+     */
+    public int[] documentFrequencies() {
+        int[] copy = new int[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            copy[i] = documentFrequency.get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * Replace all document statistics, e.g. when an index snapshot is loaded
+     */
+    public void restoreFrequencies(int[] frequencies, int count) {
+        if (frequencies.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " frequencies, got " + frequencies.length);
+        }
+        for (int i = 0; i < dimensions; i++) {
+            documentFrequency.set(i, frequencies[i]);
+        }
+        documentCount.set(count);
+    }
+
+    /**
+     * TF-IDF embedding of the text, L2-normalized so a dot product is a cosine similarity
+     */
+    public float[] embed(String text) {
+        int[] counts = new int[dimensions];
+        int[] signs = new int[dimensions];
+        countFeatures(text, counts, signs);
+
+        float[] vector = new float[dimensions];
+        int n = documentCount.get();
+        double norm = 0.0;
+        for (int i = 0; i < dimensions; i++) {
+            int signed = signs[i];
+            if (signed == 0) {
+                continue;  // empty bucket, or colliding features cancelled out
+            }
+            double tf = 1.0 + Math.log(Math.abs(signed));
+            double idf = Math.log((1.0 + n) / (1.0 + Math.max(0, documentFrequency.get(i)))) + 1.0;
+            double weight = Integer.signum(signed) * tf * idf;
+            vector[i] = (float) weight;
+            norm += weight * weight;
+        }
+        if (norm > 0.0) {
+            float scale = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < dimensions; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Tokenize into lowercase alphanumeric words and hash each word and each of its
+     * boundary-padded character trigrams. Signs (when requested) accumulate the hash sign
+     * per bucket so colliding features tend to cancel instead of piling up.
+     */
+    private void countFeatures(String text, int[] counts, int[] signs) {
+        if (text == null) {
+            return;
+        }
+        char[] word = new char[64];
+        int len = 0;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (len == word.length) {
+                    word = Arrays.copyOf(word, len * 2);
+                }
+                word[len++] = Character.toLowerCase(c);
+            } else if (len > 0) {
+                if (len > 1) {
+                    addFeature(hash(word, 0, len, 0x9747b28c), counts, signs);
+                }
+                addTrigrams(word, len, counts, signs);
+                len = 0;
+            }
+        }
+    }
+
+    private void addTrigrams(char[] word, int len, int[] counts, int[] signs) {
+        // Pad with '#' so prefixes and suffixes get their own trigrams
+        char[] padded = new char[len + 2];
+        padded[0] = '#';
+        System.arraycopy(word, 0, padded, 1, len);
+        padded[len + 1] = '#';
+        for (int i = 0; i + 3 <= padded.length; i++) {
+            addFeature(hash(padded, i, 3, 0x5bd1e995), counts, signs);
+        }
+    }
+
+    private void addFeature(int hash, int[] counts, int[] signs) {
+        int bucket = hash & mask;
+        counts[bucket]++;
+        if (signs != null) {
+            signs[bucket] += (hash >>> 31) == 0 ? 1 : -1;
+        }
+    }
+
+    // FNV-1a over the chars followed by the murmur3 finalizer for better bit mixing
+    private static int hash(char[] chars, int offset, int length, int seed) {
+        int h = 0x811c9dc5 ^ seed;
+        for (int i = offset; i < offset + length; i++) {
+            h ^= chars[i];
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
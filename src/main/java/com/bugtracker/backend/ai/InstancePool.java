@@ -0,0 +1,72 @@
+package com.bugtracker.backend.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size pool of non-thread-safe instances; each instance is confined to one thread while borrowed.
+ * Shared by the OpenNLP extractors and the DJL predictors.
+ */
+class InstancePool<T> {
+
+    private final List<T> instances = new ArrayList<>();
+    private final BlockingQueue<T> idle;
+    private final long borrowTimeoutMs;
+    private volatile boolean closed;
+
+    InstancePool(int size, long borrowTimeoutMs, Supplier<T> factory) {
+        this.idle = new ArrayBlockingQueue<>(size);
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        for (int i = 0; i < size; i++) {
+            T instance = factory.get();
+            instances.add(instance);
+            idle.add(instance);
+        }
+    }
+
+    /**
+     * Borrow an instance, or null if none became free within the timeout or the pool is closed
+     */
+    T borrow() {
+        if (closed) {
+            return null;
+        }
+        try {
+            return idle.poll(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    void release(T instance) {
+        idle.offer(instance);
+    }
+
+    /**
+     * Stop lending and close every instance, borrowed ones included. Borrowers get up to
+     * {@code graceMs} to hand theirs back; after that they are closed regardless.
+     */
+    void close(long graceMs, Consumer<T> closer) {
+        closed = true;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(graceMs);
+        try {
+            for (int returned = 0; returned < instances.size(); returned++) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || idle.poll(remaining, TimeUnit.NANOSECONDS) == null) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (T instance : instances) {
+            closer.accept(instance);
+        }
+    }
+}
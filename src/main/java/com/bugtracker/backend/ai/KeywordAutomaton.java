@@ -0,0 +1,170 @@
+package com.bugtracker.backend.ai;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Case-insensitive Aho-Corasick automaton compiled to a dense transition table.
+ * Matching is a single pass over the text with one table lookup per character, independent of
+ * the number of keywords, and characters are folded on the fly so no lowered copy is allocated.
+ * Immutable once built and safe to share between threads.
+ */
+public final class KeywordAutomaton {
+
+    private final int[] asciiClass = new int[128];
+    private final char[] extraChars;   // sorted, folded non-ASCII characters used by keywords
+    private final int[] extraClass;
+    private final int width;           // number of character classes, class 0 = "not in any keyword"
+    private final int[] delta;         // state * width + class -> next state
+    private final int[][] outputs;     // keyword ids ending at each state (including via failure links)
+
+    /**
+     * @param keywords keywords to match; the index in the list is the id reported on a match
+     */
+    public KeywordAutomaton(List<String> keywords) {
+        // Alphabet compression: only characters that appear in keywords get their own class
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                alphabet.add(fold(keyword.charAt(i)));
+            }
+        }
+        Map<Character, Integer> classes = new HashMap<>();
+        List<Character> extra = new ArrayList<>();
+        for (char c : alphabet) {
+            classes.put(c, classes.size() + 1);
+            if (c >= 128) {
+                extra.add(c);
+            }
+        }
+        this.width = classes.size() + 1;
+        for (char c = 0; c < 128; c++) {
+            Integer cls = classes.get(fold(c));
+            asciiClass[c] = cls != null ? cls : 0;
+        }
+        this.extraChars = new char[extra.size()];
+        this.extraClass = new int[extra.size()];
+        for (int i = 0; i < extra.size(); i++) {
+            extraChars[i] = extra.get(i);
+            extraClass[i] = classes.get(extra.get(i));
+        }
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<int[]> terminal = new ArrayList<>();
+        trie.add(newRow());
+        terminal.add(null);
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id);
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Empty keyword at index " + id);
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int cls = classes.get(fold(keyword.charAt(i)));
+                int next = trie.get(state)[cls];
+                if (next <= 0) {
+                    next = trie.size();
+                    trie.get(state)[cls] = next;
+                    trie.add(newRow());
+                    terminal.add(null);
+                }
+                state = next;
+            }
+            terminal.set(state, append(terminal.get(state), id));
+        }
+
+        // Breadth-first failure links, folded directly into a complete DFA
+        int states = trie.size();
+        this.delta = new int[states * width];
+        this.outputs = new int[states][];
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        outputs[0] = terminal.get(0);
+        for (int cls = 1; cls < width; cls++) {
+            int next = trie.get(0)[cls];
+            if (next > 0) {
+                delta[cls] = next;
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] own = terminal.get(state);
+            int[] inherited = outputs[fail[state]];
+            outputs[state] = inherited == null ? own : own == null ? inherited : concat(own, inherited);
+            for (int cls = 1; cls < width; cls++) {
+                int next = trie.get(state)[cls];
+                if (next > 0) {
+                    fail[next] = delta[fail[state] * width + cls];
+                    delta[state * width + cls] = next;
+                    queue.add(next);
+                } else {
+                    delta[state * width + cls] = delta[fail[state] * width + cls];
+                }
+            }
+        }
+    }
+
+    /**
+     * Scan the text once, reporting the id of every keyword occurrence (ids may repeat)
+     */
+    public void scan(CharSequence text, IntConsumer onMatch) {
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = delta[state * width + classOf(text.charAt(i))];
+            int[] matches = outputs[state];
+            if (matches != null) {
+                for (int id : matches) {
+                    onMatch.accept(id);
+                }
+            }
+        }
+    }
+
+    public int stateCount() {
+        return outputs.length;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClass[c];
+        }
+        char folded = Character.toLowerCase(c);
+        if (folded < 128) {
+            return asciiClass[folded];
+        }
+        int idx = Arrays.binarySearch(extraChars, folded);
+        return idx >= 0 ? extraClass[idx] : 0;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+
+    private int[] newRow() {
+        return new int[width];
+    }
+
+    private static int[] append(int[] ids, int id) {
+        if (ids == null) {
+            return new int[] { id };
+        }
+        int[] grown = Arrays.copyOf(ids, ids.length + 1);
+        grown[ids.length] = id;
+        return grown;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] joined = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, joined, a.length, b.length);
+        return joined;
+    }
+}
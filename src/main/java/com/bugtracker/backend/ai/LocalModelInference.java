@@ -0,0 +1,183 @@
+package com.bugtracker.backend.ai;
+
+import ai.djl.engine.Engine;
+import ai.djl.huggingface.translator.TextClassificationTranslatorFactory;
+import ai.djl.modality.Classifications;
+import ai.djl.repository.zoo.Criteria;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.TranslatorFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-process model inference with DJL.
+ * Loads a severity classifier and a priority classifier from a local directory (one
+ * sub-directory per model, each with the traced model and tokenizer.json). Similar-bug search
+ * keeps its own hashing embedder, so no embedding model is loaded here.
+ * Models are only read from disk. The PyTorch native library comes from the local-inference
+ * build profile or PYTORCH_LIBRARY_PATH; DJL_OFFLINE=true keeps DJL from downloading it.
+ */
+@Component
+@ConditionalOnProperty(name = "ai.local.enabled", havingValue = "true", matchIfMissing = false)
+public class LocalModelInference {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalModelInference.class);
+    private static final String ENGINE = "PyTorch";
+
+    private final Path modelDir;
+    private final int poolSize;
+    private final long borrowTimeoutMs;
+
+    private PredictorPool<String, Classifications> severityPool;
+    private PredictorPool<String, Classifications> priorityPool;
+
+    public LocalModelInference(
+            @Value("${ai.local.model-dir:models}") String modelDir,
+            @Value("${ai.local.pool-size:2}") int poolSize,
+            @Value("${ai.local.borrow-timeout-ms:200}") long borrowTimeoutMs) {
+        this.modelDir = Paths.get(modelDir);
+        this.poolSize = Math.max(1, poolSize);
+        this.borrowTimeoutMs = borrowTimeoutMs;
+    }
+
+    /**
+     * Prediction result with the model's probability for the chosen label
+     */
+    public static class Prediction {
+        private final String label;
+        private final double probability;
+
+        public Prediction(String label, double probability) {
+            this.label = label;
+            this.probability = probability;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public double getProbability() {
+            return probability;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            Engine engine = Engine.getEngine(ENGINE);
+            logger.info("Local inference using {} {}", engine.getEngineName(), engine.getVersion());
+        } catch (RuntimeException e) {
+            logger.error("{} engine unavailable ({}); local inference disabled, falling back to rules/remote service. "
+                + "Build with -Plocal-inference or set PYTORCH_LIBRARY_PATH.", ENGINE, e.getMessage());
+            return;
+        }
+
+        severityPool = loadPool("severity", Classifications.class, new TextClassificationTranslatorFactory());
+        priorityPool = loadPool("priority", Classifications.class, new TextClassificationTranslatorFactory());
+    }
+
+    private <O> PredictorPool<String, O> loadPool(String name, Class<O> outputType, TranslatorFactory factory) {
+        Path path = modelDir.resolve(name);
+        if (!Files.isDirectory(path)) {
+            logger.warn("Local {} model not found at {}; falling back to rules/remote service", name, path);
+            return null;
+        }
+        try {
+            Criteria<String, O> criteria = Criteria.builder()
+                    .setTypes(String.class, outputType)
+                    .optModelPath(path)
+                    .optEngine(ENGINE)
+                    .optTranslatorFactory(factory)
+                    .build();
+            ZooModel<String, O> model = criteria.loadModel();
+            logger.info("Loaded local {} model from {} with {} predictors", name, path, poolSize);
+            return new PredictorPool<>(model, poolSize, borrowTimeoutMs);
+        } catch (Exception e) {
+            logger.error("Failed to load local {} model from {}: {}", name, path, e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean isClassifierReady() {
+        return severityPool != null && priorityPool != null;
+    }
+
+    public Prediction predictSeverity(String text) {
+        return classify(severityPool, text);
+    }
+
+    public Prediction predictPriority(String text) {
+        return classify(priorityPool, text);
+    }
+
+    /**
+     * One batched forward pass over all texts, or null if the model is unavailable or busy
+     */
+    public List<Prediction> predictSeverity(List<String> texts) {
+        return classify(severityPool, texts);
+    }
+
+    public List<Prediction> predictPriority(List<String> texts) {
+        return classify(priorityPool, texts);
+    }
+
+    private Prediction classify(PredictorPool<String, Classifications> pool, String text) {
+        if (pool == null) {
+            return null;
+        }
+        try {
+            Classifications result = pool.predict(text);
+            return result != null ? toPrediction(result) : null;
+        } catch (Exception e) {
+            logger.error("Local classification failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private List<Prediction> classify(PredictorPool<String, Classifications> pool, List<String> texts) {
+        if (pool == null || texts.isEmpty()) {
+            return null;
+        }
+        try {
+            List<Classifications> results = pool.batchPredict(texts);
+            if (results == null) {
+                return null;
+            }
+            List<Prediction> predictions = new ArrayList<>(results.size());
+            for (Classifications result : results) {
+                predictions.add(toPrediction(result));
+            }
+            return predictions;
+        } catch (Exception e) {
+            logger.error("Local batch classification failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Prediction toPrediction(Classifications result) {
+        Classifications.Classification best = result.best();
+        return new Prediction(best.getClassName().toUpperCase(Locale.ROOT), best.getProbability());
+    }
+
+    @PreDestroy
+    public void close() {
+        if (severityPool != null) {
+            severityPool.close();
+        }
+        if (priorityPool != null) {
+            priorityPool.close();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.bugtracker.backend.ai;
+
+import ai.djl.inference.Predictor;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.TranslateException;
+
+import java.util.List;
+
+/**
+ * Bounded pool of DJL predictors for one model.
+ * A {@link Predictor} is not thread-safe, so each one is confined to a single caller while borrowed.
+ */
+class PredictorPool<I, O> implements AutoCloseable {
+
+    private static final long CLOSE_GRACE_MS = 5000;
+
+    private final ZooModel<I, O> model;
+    private final InstancePool<Predictor<I, O>> predictors;
+
+    PredictorPool(ZooModel<I, O> model, int size, long borrowTimeoutMs) {
+        this.model = model;
+        this.predictors = new InstancePool<>(size, borrowTimeoutMs, model::newPredictor);
+    }
+
+    /**
+     * Run a single prediction, or return null if no predictor became free in time
+     */
+    O predict(I input) throws TranslateException {
+        Predictor<I, O> predictor = predictors.borrow();
+        if (predictor == null) {
+            return null;
+        }
+        try {
+            return predictor.predict(input);
+        } finally {
+            predictors.release(predictor);
+        }
+    }
+
+    /**
+     * Run a batch through one predictor so tokenization and the forward pass are batched
+     */
+    List<O> batchPredict(List<I> inputs) throws TranslateException {
+        Predictor<I, O> predictor = predictors.borrow();
+        if (predictor == null) {
+            return null;
+        }
+        try {
+            return predictor.batchPredict(inputs);
+        } finally {
+            predictors.release(predictor);
+        }
+    }
+
+    /**
+     * Close every predictor, borrowed ones after a short grace period, then the model
+     */
+    @Override
+    public void close() {
+        predictors.close(CLOSE_GRACE_MS, Predictor::close);
+        model.close();
+    }
+}
@@ -0,0 +1,54 @@
+package com.bugtracker.backend.ai;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one tier of the analyzer chain.
+ * LongAdder keeps recording contention-free on the request path.
+ */
+public class TierStats {
+
+    private final String name;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder served = new LongAdder();
+    private final LongAdder escalated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public TierStats(String name) {
+        this.name = name;
+    }
+
+    void recordRequest() {
+        requests.increment();
+    }
+
+    void recordServed() {
+        served.increment();
+    }
+
+    void recordEscalated() {
+        escalated.increment();
+    }
+
+    void recordFailed() {
+        failed.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> snapshot() {
+        long total = requests.sum();
+        long up = escalated.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("requests", total);
+        snapshot.put("served", served.sum());
+        snapshot.put("escalated", up);
+        snapshot.put("failed", failed.sum());
+        snapshot.put("escalationRate", total == 0 ? 0.0 : (double) up / total);
+        return snapshot;
+    }
+}
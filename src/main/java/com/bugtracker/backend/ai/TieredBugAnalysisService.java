@@ -0,0 +1,261 @@
+package com.bugtracker.backend.ai;
+
+import com.bugtracker.backend.payload.response.AIAnalysisResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Analyzer chain: the in-process classifier (DJL model or keyword rules) answers first,
+ * and the remote AI service is only called when local confidence is below the threshold
+ * or no rule matched at all. Results are shared per text through {@link AnalysisCache}, and
+ * concurrent escalations of the same text in the same work class share one remote call.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "ai.enabled", havingValue = "true", matchIfMissing = false)
+public class TieredBugAnalysisService implements BugAnalysisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredBugAnalysisService.class);
+    private static final double REVIEW_THRESHOLD = 0.6;
+
+    private final DjlBugAnalysisService localAnalysis;
+    private final AIServiceClient aiServiceClient;
+    private final AIWorkScheduler workScheduler;
+    private final AIHealthMonitor healthMonitor;
+    private final AnalysisCache analysisCache;
+    private final double escalationThreshold;
+    private final boolean remoteEnabled;
+
+    private final TierStats localStats = new TierStats("local");
+    private final TierStats remoteStats = new TierStats("remote");
+    // Escalations in flight by work class and text
+    private final Map<AIWorkScheduler.WorkClass, Map<String, CompletableFuture<AIAnalysisResponse>>> escalations =
+        new EnumMap<>(AIWorkScheduler.WorkClass.class);
+
+    public TieredBugAnalysisService(
+            DjlBugAnalysisService localAnalysis,
+            AIServiceClient aiServiceClient,
+            AIWorkScheduler workScheduler,
+            AIHealthMonitor healthMonitor,
+            AnalysisCache analysisCache,
+            @Value("${ai.tier.escalation-threshold:0.6}") double escalationThreshold,
+            @Value("${ai.tier.remote-enabled:true}") boolean remoteEnabled) {
+        this.localAnalysis = localAnalysis;
+        this.aiServiceClient = aiServiceClient;
+        this.workScheduler = workScheduler;
+        this.healthMonitor = healthMonitor;
+        this.analysisCache = analysisCache;
+        for (AIWorkScheduler.WorkClass workClass : AIWorkScheduler.WorkClass.values()) {
+            escalations.put(workClass, new ConcurrentHashMap<>());
+        }
+        this.escalationThreshold = escalationThreshold;
+        this.remoteEnabled = remoteEnabled;
+    }
+
+    /**
+     * Analyze a bug text, escalating to the remote service only when the local tier is unsure.
+     * Never returns null: if escalation fails the local result is returned flagged for review.
+     */
+    public AIAnalysisResponse analyze(String bugDescription) {
+        return analyze(bugDescription, AIWorkScheduler.WorkClass.INTERACTIVE);
+    }
+
+    /**
+     * Same as {@link #analyze(String)}, with any remote call queued under the given work class
+     */
+    public AIAnalysisResponse analyze(String bugDescription, AIWorkScheduler.WorkClass workClass) {
+        return analyzeAsync(bugDescription, workClass).join();
+    }
+
+    /**
+     * Non-blocking variant: the local tier runs on the calling thread and an escalation
+     * completes the future from the scheduler's worker. The future never fails, and each
+     * caller gets its own copy of the analysis.
+     */
+    public CompletableFuture<AIAnalysisResponse> analyzeAsync(String bugDescription, AIWorkScheduler.WorkClass workClass) {
+        AIAnalysisResponse cached = analysisCache.get(bugDescription);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        localStats.recordRequest();
+        return escalateIfUnsure(bugDescription, localAnalysis.analyzeLocal(bugDescription), workClass);
+    }
+
+    /**
+     * Many texts at once, in input order: cached texts are answered from the cache and the
+     * rest go through the local classifiers in one batch, then escalate one by one as in
+     * {@link #analyzeAsync}
+     */
+    public List<CompletableFuture<AIAnalysisResponse>> analyzeAllAsync(List<String> bugDescriptions,
+                                                                       AIWorkScheduler.WorkClass workClass) {
+        List<CompletableFuture<AIAnalysisResponse>> results = new ArrayList<>(bugDescriptions.size());
+        List<String> misses = new ArrayList<>();
+        List<Integer> missPositions = new ArrayList<>();
+        for (String bugDescription : bugDescriptions) {
+            AIAnalysisResponse cached = analysisCache.get(bugDescription);
+            results.add(cached != null ? CompletableFuture.completedFuture(cached) : null);
+            if (cached == null) {
+                misses.add(bugDescription);
+                missPositions.add(results.size() - 1);
+            }
+        }
+        List<DjlBugAnalysisService.LocalAnalysis> locals = localAnalysis.analyzeLocal(misses);
+        for (int i = 0; i < misses.size(); i++) {
+            localStats.recordRequest();
+            results.set(missPositions.get(i), escalateIfUnsure(misses.get(i), locals.get(i), workClass));
+        }
+        return results;
+    }
+
+    private CompletableFuture<AIAnalysisResponse> escalateIfUnsure(String bugDescription,
+                                                                   DjlBugAnalysisService.LocalAnalysis localResult,
+                                                                   AIWorkScheduler.WorkClass workClass) {
+        AIAnalysisResponse local = localResult.analysis;
+        double localConfidence = local.getConfidence() != null ? local.getConfidence() : 0.0;
+
+        // A model can be confident about text no rule recognises; that is escalated too
+        if ((localConfidence >= escalationThreshold && localResult.ruleMatched) || !remoteEnabled) {
+            localStats.recordServed();
+            local.setNeedsReview(localConfidence < REVIEW_THRESHOLD);
+            analysisCache.put(bugDescription, local);
+            return CompletableFuture.completedFuture(local);
+        }
+        if (!healthMonitor.isAvailable()) {
+            // Known to be down: answer now instead of queueing a call that would fail
+            localStats.recordServed();
+            local.setNeedsReview(true);
+            return CompletableFuture.completedFuture(local);
+        }
+
+        Map<String, CompletableFuture<AIAnalysisResponse>> inFlight = escalations.get(workClass);
+        CompletableFuture<AIAnalysisResponse> pending = new CompletableFuture<>();
+        CompletableFuture<AIAnalysisResponse> existing = inFlight.putIfAbsent(bugDescription, pending);
+        if (existing != null) {
+            return existing.thenApply(AIAnalysisResponse::copy);
+        }
+        localStats.recordEscalated();
+        remoteStats.recordRequest();
+        callRemote(bugDescription, workClass)
+            .thenApply(remote -> {
+                if (remote == null) {
+                    // Remote failure, or dropped by the scheduler (queue full, deadline passed);
+                    // not cached, so the next request tries the remote tier again
+                    logger.debug("Remote tier unavailable, serving local result (confidence {})", localConfidence);
+                    local.setNeedsReview(true);
+                    return local;
+                }
+                return remote;
+            })
+            .whenComplete((analysis, error) -> {
+                inFlight.remove(bugDescription, pending);
+                pending.complete(analysis);
+            });
+        return pending.thenApply(AIAnalysisResponse::copy);
+    }
+
+    /**
+     * Remote analysis of a text the local tier already answered, so a stored bug still gets the
+     * remote summary and embedding. A cached remote analysis of the text is reused. Completes with
+     * null when the remote tier is off, down or fails.
+     */
+    public CompletableFuture<AIAnalysisResponse> enrichAsync(String bugDescription, AIWorkScheduler.WorkClass workClass) {
+        AIAnalysisResponse cached = analysisCache.get(bugDescription);
+        if (cached != null && cached.getEmbedding() != null && cached.getEmbedding().length > 0) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (!remoteEnabled || !healthMonitor.isAvailable()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        remoteStats.recordRequest();
+        return callRemote(bugDescription, workClass);
+    }
+
+    /**
+     * One scheduled remote call; a successful answer replaces the text's cached analysis
+     */
+    private CompletableFuture<AIAnalysisResponse> callRemote(String bugDescription, AIWorkScheduler.WorkClass workClass) {
+        return workScheduler.submit(workClass,
+                () -> healthMonitor.track(() -> aiServiceClient.getComprehensiveAnalysis(bugDescription)))
+            .handle((response, error) -> {
+                if (response == null) {
+                    remoteStats.recordFailed();
+                    return null;
+                }
+                remoteStats.recordServed();
+                AIAnalysisResponse remote = toAnalysis(response);
+                analysisCache.put(bugDescription, remote);
+                return remote;
+            });
+    }
+
+    /**
+     * Remote response as an analysis, flagged for review below the confidence threshold
+     */
+    public static AIAnalysisResponse toAnalysis(AIServiceClient.ComprehensiveAnalysisResponse response) {
+        AIAnalysisResponse analysis = new AIAnalysisResponse();
+        analysis.setSeverity(response.getSeverity());
+        analysis.setPriority(response.getPriority());
+        analysis.setTags(response.getTags() != null ? response.getTags() : Collections.emptyList());
+        analysis.setSummary(response.getSummary());
+        analysis.setEmbedding(response.getEmbedding());
+        analysis.setConfidence(response.getConfidence());
+        analysis.setModelVersion(response.getModelVersion());
+        // Mark for review if confidence is low
+        analysis.setNeedsReview(response.getConfidence() != null && response.getConfidence() < REVIEW_THRESHOLD);
+        return analysis;
+    }
+
+    /**
+     * Per-tier request, escalation and failure counters, plus remote queue state
+     */
+    public Map<String, Object> getTierStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put(localStats.getName(), localStats.snapshot());
+        stats.put(remoteStats.getName(), remoteStats.snapshot());
+        stats.put("escalationThreshold", escalationThreshold);
+        stats.put("scheduler", workScheduler.getStats());
+        stats.put("remoteHealth", healthMonitor.getSnapshot());
+        return stats;
+    }
+
+    /**
+     * Priority and severity of one text share a single tiered analysis through the cache
+     */
+    @Override
+    public String predictPriority(String bugDescription) {
+        return analyze(bugDescription).getPriority();
+    }
+
+    @Override
+    public String predictSeverity(String bugDescription) {
+        return analyze(bugDescription).getSeverity();
+    }
+
+    @Override
+    public Map<String, List<String>> extractEntities(String bugDescription) {
+        return localAnalysis.extractEntities(bugDescription);
+    }
+
+    @Override
+    public List<SimilarBug> findSimilarBugs(String bugDescription, int limit) {
+        return localAnalysis.findSimilarBugs(bugDescription, limit);
+    }
+
+    @Override
+    public List<String> suggestSolutions(String bugDescription) {
+        return localAnalysis.suggestSolutions(bugDescription);
+    }
+}
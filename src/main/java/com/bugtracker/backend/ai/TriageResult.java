@@ -0,0 +1,50 @@
+package com.bugtracker.backend.ai;
+
+import java.util.List;
+
+/**
+ * Outcome of one pass of the rule engine over a bug text
+ */
+public final class TriageResult {
+
+    private final String priority;      // null when no priority rule matched
+    private final String severity;      // null when no severity rule matched
+    private final double confidence;    // 0.0 when nothing matched
+    private final List<String> tags;
+    private final List<String> suggestions;
+    private final int matchedRules;
+
+    TriageResult(String priority, String severity, double confidence,
+                 List<String> tags, List<String> suggestions, int matchedRules) {
+        this.priority = priority;
+        this.severity = severity;
+        this.confidence = confidence;
+        this.tags = tags;
+        this.suggestions = suggestions;
+        this.matchedRules = matchedRules;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public List<String> getSuggestions() {
+        return suggestions;
+    }
+
+    public int getMatchedRules() {
+        return matchedRules;
+    }
+}
@@ -0,0 +1,72 @@
+package com.bugtracker.backend.ai;
+
+/**
+ * One row of the triage rule table: a keyword and what it votes for.
+ * Any of priority, severity, tag and suggestion may be null.
+ */
+public final class TriageRule {
+
+    private final String keyword;
+    private final String priority;
+    private final String severity;
+    private final String tag;
+    private final double weight;
+    private final String suggestion;
+
+    public TriageRule(String keyword, String priority, String severity, String tag,
+                      double weight, String suggestion) {
+        this.keyword = keyword;
+        this.priority = priority;
+        this.severity = severity;
+        this.tag = tag;
+        this.weight = weight;
+        this.suggestion = suggestion;
+    }
+
+    /**
+     * Parse a CSV line: keyword,priority,severity,tag,weight,suggestion.
+     * The suggestion is the last column and may itself contain commas.
+     */
+    static TriageRule parse(String line) {
+        String[] cols = line.split(",", 6);
+        if (cols.length < 5 || cols[0].trim().isEmpty()) {
+            throw new IllegalArgumentException("Malformed triage rule: " + line);
+        }
+        return new TriageRule(
+            cols[0].trim(),
+            emptyToNull(cols[1]),
+            emptyToNull(cols[2]),
+            emptyToNull(cols[3]),
+            cols[4].trim().isEmpty() ? 1.0 : Double.parseDouble(cols[4].trim()),
+            cols.length > 5 ? emptyToNull(cols[5]) : null);
+    }
+
+    private static String emptyToNull(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public String getSuggestion() {
+        return suggestion;
+    }
+}
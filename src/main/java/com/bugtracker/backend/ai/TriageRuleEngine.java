@@ -0,0 +1,161 @@
+package com.bugtracker.backend.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Rule-based triage driven by a configurable keyword table (ai.rules.location).
+ * All keywords are compiled into one {@link KeywordAutomaton}, so priority, severity,
+ * tags and suggestions come out of a single case-insensitive pass over the text.
+ */
+@Component
+public class TriageRuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TriageRuleEngine.class);
+
+    // Total rule weight at which a dimension counts as fully supported
+    private static final double SATURATION_WEIGHT = 2.0;
+
+    private final List<TriageRule> rules;
+    private final int[][] rulesByKeyword;
+    private final KeywordAutomaton automaton;
+    private final List<String> priorityOrder = new ArrayList<>();
+    private final List<String> severityOrder = new ArrayList<>();
+
+    public TriageRuleEngine(@Value("${ai.rules.location:classpath:ai/triage-rules.csv}") Resource rulesLocation) {
+        this(loadRules(rulesLocation));
+        logger.info("Triage rule engine compiled {} rules from {} ({} automaton states)",
+            rules.size(), rulesLocation, automaton.stateCount());
+    }
+
+    TriageRuleEngine(List<TriageRule> rules) {
+        this.rules = List.copyOf(rules);
+
+        // Several rules may share a keyword; the automaton matches each distinct keyword once
+        Map<String, List<Integer>> byKeyword = new LinkedHashMap<>();
+        for (int i = 0; i < this.rules.size(); i++) {
+            TriageRule rule = this.rules.get(i);
+            byKeyword.computeIfAbsent(rule.getKeyword().toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(i);
+            // Ties between labels are broken by the order they first appear in the table
+            if (rule.getPriority() != null && !priorityOrder.contains(rule.getPriority())) {
+                priorityOrder.add(rule.getPriority());
+            }
+            if (rule.getSeverity() != null && !severityOrder.contains(rule.getSeverity())) {
+                severityOrder.add(rule.getSeverity());
+            }
+        }
+        this.rulesByKeyword = new int[byKeyword.size()][];
+        int k = 0;
+        for (List<Integer> ids : byKeyword.values()) {
+            rulesByKeyword[k++] = ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.automaton = new KeywordAutomaton(new ArrayList<>(byKeyword.keySet()));
+    }
+
+    private static List<TriageRule> loadRules(Resource location) {
+        List<TriageRule> rules = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                rules.add(TriageRule.parse(trimmed));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load triage rules from " + location, e);
+        }
+        return rules;
+    }
+
+    /**
+     * Evaluate all rules against the text in one pass
+     */
+    public TriageResult evaluate(CharSequence text) {
+        boolean[] matched = new boolean[rules.size()];
+        int[] matchedCount = new int[1];
+        automaton.scan(text, keywordId -> {
+            for (int ruleId : rulesByKeyword[keywordId]) {
+                if (!matched[ruleId]) {
+                    matched[ruleId] = true;
+                    matchedCount[0]++;
+                }
+            }
+        });
+
+        if (matchedCount[0] == 0) {
+            return new TriageResult(null, null, 0.0, Collections.emptyList(), Collections.emptyList(), 0);
+        }
+
+        Map<String, Double> priorityVotes = new HashMap<>();
+        Map<String, Double> severityVotes = new HashMap<>();
+        Set<String> tags = new LinkedHashSet<>();
+        Set<String> suggestions = new LinkedHashSet<>();
+        for (int i = 0; i < matched.length; i++) {
+            if (!matched[i]) {
+                continue;
+            }
+            TriageRule rule = rules.get(i);
+            if (rule.getPriority() != null) {
+                priorityVotes.merge(rule.getPriority(), rule.getWeight(), Double::sum);
+            }
+            if (rule.getSeverity() != null) {
+                severityVotes.merge(rule.getSeverity(), rule.getWeight(), Double::sum);
+            }
+            if (rule.getTag() != null) {
+                tags.add(rule.getTag());
+            }
+            if (rule.getSuggestion() != null) {
+                suggestions.add(rule.getSuggestion());
+            }
+        }
+
+        String priority = winner(priorityVotes, priorityOrder);
+        String severity = winner(severityVotes, severityOrder);
+        double confidence = (support(priorityVotes, priority) + support(severityVotes, severity)) / 2.0;
+
+        return new TriageResult(priority, severity, confidence,
+            new ArrayList<>(tags), new ArrayList<>(suggestions), matchedCount[0]);
+    }
+
+    private static String winner(Map<String, Double> votes, List<String> order) {
+        String best = null;
+        double bestWeight = 0.0;
+        for (String label : order) {
+            Double weight = votes.get(label);
+            if (weight != null && weight > bestWeight) {
+                best = label;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    // Share of the vote held by the winner, scaled down while total evidence is thin
+    private static double support(Map<String, Double> votes, String winner) {
+        if (winner == null) {
+            return 0.0;
+        }
+        double total = 0.0;
+        for (double weight : votes.values()) {
+            total += weight;
+        }
+        return (votes.get(winner) / total) * Math.min(1.0, total / SATURATION_WEIGHT);
+    }
+
+    public int ruleCount() {
+        return rules.size();
+    }
+}
@@ -6,10 +6,12 @@ import com.bugtracker.backend.model.Role;
 import com.bugtracker.backend.model.User;
 import com.bugtracker.backend.repository.RoleRepository;
 import com.bugtracker.backend.repository.UserRepository;
+import com.bugtracker.backend.service.RoleRegistry;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -17,25 +19,29 @@ import java.util.Set;
 public class DataInitializer implements CommandLineRunner {
 
     private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
     public DataInitializer(RoleRepository roleRepository, 
+                           RoleRegistry roleRegistry,
                            UserRepository userRepository,
                            PasswordEncoder passwordEncoder) {
         this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
     }
 
     @Override
     public void run(String... args) {
-        // Create roles if they don't exist
-        for (ERole role : ERole.values()) {
-            if (!roleRepository.existsByName(role)) {
-                roleRepository.save(new Role(role));
-            }
+        // Create roles if they don't exist (one query for all roles instead of one per role)
+        Set<ERole> missing = EnumSet.allOf(ERole.class);
+        roleRepository.findAll().forEach(role -> missing.remove(role.getName()));
+        for (ERole role : missing) {
+            roleRepository.save(new Role(role));
         }
+        roleRegistry.refresh();
 
         // Create test user if it doesn't exist
         if (!userRepository.existsByUsername("testing")) {
@@ -43,9 +49,7 @@ public class DataInitializer implements CommandLineRunner {
                                     passwordEncoder.encode("testing123"));
             
             Set<Role> roles = new HashSet<>();
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("ROLE_USER not found"));
-            roles.add(userRole);
+            roles.add(roleRegistry.get(ERole.ROLE_USER));
             testUser.setRoles(roles);
             
             userRepository.save(testUser);
@@ -58,9 +62,7 @@ public class DataInitializer implements CommandLineRunner {
                                      passwordEncoder.encode("admin123"));
             
             Set<Role> roles = new HashSet<>();
-            Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                    .orElseThrow(() -> new RuntimeException("ROLE_ADMIN not found"));
-            roles.add(adminRole);
+            roles.add(roleRegistry.get(ERole.ROLE_ADMIN));
             adminUser.setRoles(roles);
             
             userRepository.save(adminUser);
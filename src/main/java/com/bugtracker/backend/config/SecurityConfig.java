@@ -2,6 +2,7 @@ package com.bugtracker.backend.config;
 
 import com.bugtracker.backend.security.jwt.AuthEntryPointJwt;
 import com.bugtracker.backend.security.jwt.AuthTokenFilter;
+import com.bugtracker.backend.security.ratelimit.RateLimitFilter;
 import com.bugtracker.backend.security.services.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -39,6 +40,11 @@ public class SecurityConfig {
         return new AuthTokenFilter();
     }
 
+    @Bean
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter();
+    }
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
@@ -117,6 +123,8 @@ public class SecurityConfig {
     
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        // Rate limits are keyed by the user, so they apply once the JWT has been read
+        http.addFilterAfter(rateLimitFilter(), AuthTokenFilter.class);
 
         return http.build();
     }
@@ -1,13 +1,24 @@
 package com.bugtracker.backend.controller;
 
+import com.bugtracker.backend.ai.AIHealthMonitor;
+import com.bugtracker.backend.ai.AIWorkScheduler;
 import com.bugtracker.backend.ai.BugAnalysisService;
+import com.bugtracker.backend.ai.TieredBugAnalysisService;
+import com.bugtracker.backend.payload.response.AIAnalysisResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/ai")
@@ -15,42 +26,83 @@ import java.util.Map;
 public class AIAnalysisController {
 
     private final BugAnalysisService bugAnalysisService;
+    private final TieredBugAnalysisService tieredAnalysis;
+    private final AIHealthMonitor healthMonitor;
+    private final Executor taskExecutor;
+
+    @Value("${ai.request-timeout-ms:10000}")
+    private long analysisTimeoutMs;
 
     @Autowired
-    public AIAnalysisController(BugAnalysisService bugAnalysisService) {
+    public AIAnalysisController(BugAnalysisService bugAnalysisService,
+                                TieredBugAnalysisService tieredAnalysis,
+                                AIHealthMonitor healthMonitor,
+                                @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
         this.bugAnalysisService = bugAnalysisService;
+        this.tieredAnalysis = tieredAnalysis;
+        this.healthMonitor = healthMonitor;
+        this.taskExecutor = taskExecutor;
     }
 
+    /**
+     * Priority and severity may escalate to the remote service, so they complete asynchronously
+     * and fall back to the defaults used by /api/bugs/ai/analyze after the request timeout
+     */
     @PostMapping("/analyze/priority")
-    public ResponseEntity<String> predictPriority(@RequestParam String description) {
-        String priority = bugAnalysisService.predictPriority(description);
-        return ResponseEntity.ok(priority);
+    public CompletableFuture<ResponseEntity<String>> predictPriority(@RequestParam String description) {
+        return analyze(description)
+            .thenApply(analysis -> ResponseEntity.ok(analysis != null ? analysis.getPriority() : "MEDIUM"));
     }
 
     @PostMapping("/analyze/severity")
-    public ResponseEntity<String> predictSeverity(@RequestParam String description) {
-        String severity = bugAnalysisService.predictSeverity(description);
-        return ResponseEntity.ok(severity);
+    public CompletableFuture<ResponseEntity<String>> predictSeverity(@RequestParam String description) {
+        return analyze(description)
+            .thenApply(analysis -> ResponseEntity.ok(analysis != null ? analysis.getSeverity() : "NORMAL"));
+    }
+
+    private CompletableFuture<AIAnalysisResponse> analyze(String description) {
+        return tieredAnalysis.analyzeAsync(description, AIWorkScheduler.WorkClass.INTERACTIVE)
+            .completeOnTimeout(null, analysisTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Local work (NER, retrieval, rules) runs on the application task executor rather than the
+     * request thread, with the same timeout as the analysis endpoints and an empty fallback
+     */
+    private <T> CompletableFuture<ResponseEntity<T>> offload(Supplier<T> work, T fallback) {
+        return CompletableFuture.supplyAsync(work, taskExecutor)
+            .exceptionally(e -> fallback)
+            .completeOnTimeout(fallback, analysisTimeoutMs, TimeUnit.MILLISECONDS)
+            .thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/analyze/entities")
-    public ResponseEntity<Map<String, List<String>>> extractEntities(@RequestParam String description) {
-        Map<String, List<String>> entities = bugAnalysisService.extractEntities(description);
-        return ResponseEntity.ok(entities);
+    public CompletableFuture<ResponseEntity<Map<String, List<String>>>> extractEntities(@RequestParam String description) {
+        return offload(() -> bugAnalysisService.extractEntities(description), Collections.emptyMap());
     }
 
     @PostMapping("/analyze/similar")
-    public ResponseEntity<List<BugAnalysisService.SimilarBug>> findSimilarBugs(
+    public CompletableFuture<ResponseEntity<List<BugAnalysisService.SimilarBug>>> findSimilarBugs(
             @RequestParam String description,
             @RequestParam(defaultValue = "5") int limit) {
-        List<BugAnalysisService.SimilarBug> similarBugs = 
-            bugAnalysisService.findSimilarBugs(description, limit);
-        return ResponseEntity.ok(similarBugs);
+        return offload(() -> bugAnalysisService.findSimilarBugs(description, limit), Collections.emptyList());
+    }
+
+    /**
+     * Cached remote AI service health from the background prober; makes no call itself
+     */
+    @GetMapping("/health")
+    public ResponseEntity<AIHealthMonitor.Snapshot> getHealth() {
+        return ResponseEntity.ok(healthMonitor.getSnapshot());
+    }
+
+    @GetMapping("/tiers")
+    public ResponseEntity<Map<String, Object>> getTierStats() {
+        return ResponseEntity.ok(tieredAnalysis.getTierStats());
     }
 
     @PostMapping("/suggest/solutions")
-    public ResponseEntity<List<String>> suggestSolutions(@RequestParam String description) {
-        List<String> solutions = bugAnalysisService.suggestSolutions(description);
-        return ResponseEntity.ok(solutions);
+    public CompletableFuture<ResponseEntity<List<String>>> suggestSolutions(@RequestParam String description) {
+        return offload(() -> bugAnalysisService.suggestSolutions(description), Collections.emptyList());
     }
 }
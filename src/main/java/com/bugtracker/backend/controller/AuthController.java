@@ -17,10 +17,10 @@ import com.bugtracker.backend.payload.request.LoginRequest;
 import com.bugtracker.backend.payload.request.SignupRequest;
 import com.bugtracker.backend.payload.response.JwtResponse;
 import com.bugtracker.backend.payload.response.MessageResponse;
-import com.bugtracker.backend.repository.RoleRepository;
 import com.bugtracker.backend.repository.UserRepository;
 import com.bugtracker.backend.security.jwt.JwtUtils;
 import com.bugtracker.backend.security.services.UserDetailsImpl;
+import com.bugtracker.backend.service.RoleRegistry;
 
 import java.util.HashSet;
 import java.util.List;
@@ -41,7 +41,7 @@ public class AuthController {
     UserRepository userRepository;
 
     @Autowired
-    RoleRepository roleRepository;
+    RoleRegistry roleRegistry;
 
     @Autowired
     PasswordEncoder encoder;
@@ -92,36 +92,24 @@ public class AuthController {
         Set<Role> roles = new HashSet<>();
 
         if (strRoles == null) {
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-            roles.add(userRole);
+            roles.add(roleRegistry.get(ERole.ROLE_USER));
         } else {
             strRoles.forEach(role -> {
                 switch (role) {
                     case "admin":
-                        Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(adminRole);
+                        roles.add(roleRegistry.get(ERole.ROLE_ADMIN));
                         break;
                     case "manager":
-                        Role managerRole = roleRepository.findByName(ERole.ROLE_MANAGER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(managerRole);
+                        roles.add(roleRegistry.get(ERole.ROLE_MANAGER));
                         break;
                     case "developer":
-                        Role developerRole = roleRepository.findByName(ERole.ROLE_DEVELOPER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(developerRole);
+                        roles.add(roleRegistry.get(ERole.ROLE_DEVELOPER));
                         break;
                     case "tester":
-                        Role testerRole = roleRepository.findByName(ERole.ROLE_TESTER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(testerRole);
+                        roles.add(roleRegistry.get(ERole.ROLE_TESTER));
                         break;
                     default:
-                        Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(userRole);
+                        roles.add(roleRegistry.get(ERole.ROLE_USER));
                 }
             });
         }
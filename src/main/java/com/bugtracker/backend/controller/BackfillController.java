@@ -0,0 +1,58 @@
+package com.bugtracker.backend.controller;
+
+import com.bugtracker.backend.model.BackfillJob;
+import com.bugtracker.backend.payload.response.MessageResponse;
+import com.bugtracker.backend.service.EmbeddingBackfillService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Admin control of the re-embedding backfill (see {@link EmbeddingBackfillService})
+ */
+@RestController
+@RequestMapping("/api/admin/backfill")
+@PreAuthorize("hasRole('ADMIN')")
+public class BackfillController {
+
+    @Autowired
+    private EmbeddingBackfillService backfillService;
+
+    /**
+     * Jobs with their progress, newest first
+     */
+    @GetMapping
+    public List<BackfillJob> listJobs() {
+        return backfillService.listJobs();
+    }
+
+    /**
+     * Re-embed every bug whose stored embedding is not from the given model version
+     */
+    @PostMapping
+    public ResponseEntity<?> start(@RequestParam String modelVersion) {
+        try {
+            return ResponseEntity.ok(backfillService.start(modelVersion));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/pause")
+    public BackfillJob pause(@PathVariable Long id) {
+        return backfillService.pause(id);
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<?> resume(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(backfillService.resume(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        }
+    }
+}
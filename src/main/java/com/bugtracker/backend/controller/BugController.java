@@ -1,14 +1,34 @@
 package com.bugtracker.backend.controller;
 
+import com.bugtracker.backend.ai.AIWorkScheduler;
+import com.bugtracker.backend.model.AIAnalysis;
 import com.bugtracker.backend.model.Bug;
 import com.bugtracker.backend.payload.response.AIAnalysisResponse;
+import com.bugtracker.backend.payload.response.BatchAnalysisItem;
+import com.bugtracker.backend.payload.response.EncodedEmbedding;
+import com.bugtracker.backend.payload.response.MessageResponse;
+import com.bugtracker.backend.search.BugClusterIndex;
+import com.bugtracker.backend.search.BugFilter;
 import com.bugtracker.backend.service.BugService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/bugs")
@@ -17,6 +37,18 @@ public class BugController {
     @Autowired
     private BugService bugService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${ai.request-timeout-ms:10000}")
+    private long analysisTimeoutMs;
+
+    @Value("${ai.batch.max-texts:100}")
+    private int maxBatchTexts;
+
+    @Value("${ai.batch.timeout-ms:120000}")
+    private long batchTimeoutMs;
+
     @GetMapping
     public List<Bug> getAllBugs() {
         return bugService.getAllBugs();
@@ -44,55 +76,198 @@ public class BugController {
     }
     
     /**
-     * Get AI analysis for bug description (before creating bug)
+     * AI analysis stored when the bug was created; served from the database, never re-analyzed
+     */
+    @GetMapping("/{id}/analysis")
+    public ResponseEntity<?> getAnalysis(@PathVariable Long id) {
+        return bugService.getStoredAnalysis(id)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new MessageResponse("Error: No AI analysis stored for this bug")));
+    }
+
+    /**
+     * Analyses flagged for review, least confident first
+     */
+    @GetMapping("/analysis/review-queue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<AIAnalysis> getReviewQueue(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return bugService.getReviewQueue(Math.max(0, page), Math.min(Math.max(1, size), 100));
+    }
+
+    @PutMapping("/{id}/analysis/reviewed")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> markAnalysisReviewed(@PathVariable Long id) {
+        return bugService.markAnalysisReviewed(id)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new MessageResponse("Error: No AI analysis stored for this bug")));
+    }
+    
+    /**
+     * Assignees (and tags) whose resolved bugs are most similar to this one
+     */
+    @GetMapping("/{id}/suggest-assignee")
+    public ResponseEntity<?> suggestAssignee(@PathVariable Long id, @RequestParam(defaultValue = "3") int limit) {
+        return bugService.suggestAssignees(id, Math.min(Math.max(1, limit), 20))
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new MessageResponse("Error: Bug not found")));
+    }
+
+    /**
+     * Similar bugs grouped by the cluster model, largest group first.
+     * Cluster ids are only stable until the next background re-fit.
+     */
+    @GetMapping("/clusters")
+    public List<BugClusterIndex.Cluster> getClusters(@RequestParam(defaultValue = "20") int members) {
+        return bugService.getClusters(Math.min(Math.max(0, members), 200));
+    }
+
+    /**
+     * The bug's cluster, with solution hints from the resolved bugs in it
+     */
+    @GetMapping("/{id}/cluster")
+    public ResponseEntity<?> getBugCluster(@PathVariable Long id, @RequestParam(defaultValue = "20") int members) {
+        return bugService.getBugCluster(id, Math.min(Math.max(0, members), 200))
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new MessageResponse("Error: Bug not found")));
+    }
+
+    /**
+     * Get AI analysis for bug description (before creating bug).
+     * The embedding is left out unless requested with include=embedding; it is then sent as
+     * base64 little-endian floats, half precision by default (embeddingFormat=f16|f32).
+     * Handled asynchronously: the request thread is released while a remote call is queued or
+     * in flight, and the default analysis is returned if none arrives within the timeout.
      */
     @PostMapping("/ai/analyze")
-    public ResponseEntity<AIAnalysisResponse> analyzeBug(@RequestBody BugAnalysisRequest request) {
+    public CompletableFuture<ResponseEntity<AIAnalysisResponse>> analyzeBug(
+            @RequestBody BugAnalysisRequest request,
+            @RequestParam(required = false) List<String> include,
+            @RequestParam(defaultValue = "f16") String embeddingFormat) {
         String fullText = (request.getTitle() != null ? request.getTitle() + " " : "") + 
                          (request.getDescription() != null ? request.getDescription() : "");
         
         // Validate text length before calling AI service
         if (fullText == null || fullText.trim().length() < 3) {
             // Return default values instead of error
-            AIAnalysisResponse defaultResponse = new AIAnalysisResponse();
-            defaultResponse.setPriority("MEDIUM");
-            defaultResponse.setSeverity("NORMAL");
-            defaultResponse.setTags(Collections.emptyList());
-            defaultResponse.setConfidence(0.5);
-            defaultResponse.setNeedsReview(true);
-            return ResponseEntity.ok(defaultResponse);
+            return CompletableFuture.completedFuture(ResponseEntity.ok(defaultAnalysis()));
+        }
+        
+        return bugService.getAIAnalysisAsync(fullText.trim(), AIWorkScheduler.WorkClass.INTERACTIVE)
+            .completeOnTimeout(null, analysisTimeoutMs, TimeUnit.MILLISECONDS)
+            .thenApply(analysis -> {
+                if (analysis == null) {
+                    // Return default values if AI service fails or is too slow
+                    return ResponseEntity.ok(defaultAnalysis());
+                }
+                if (include != null && include.contains("embedding") && analysis.getEmbedding() != null) {
+                    analysis.setEncodedEmbedding(EncodedEmbedding.of(analysis.getEmbedding(), embeddingFormat));
+                }
+                return ResponseEntity.ok(analysis);
+            });
+    }
+
+    /**
+     * Analyze up to ai.batch.max-texts texts in one request. Repeated texts are analyzed once
+     * and results are streamed as NDJSON lines of {index, analysis} in completion order, so
+     * cached and local-tier answers arrive before any remote escalations.
+     */
+    @PostMapping("/ai/analyze/batch")
+    public ResponseEntity<?> analyzeBatch(
+            @RequestBody List<BugAnalysisRequest> requests,
+            @RequestParam(required = false) List<String> include,
+            @RequestParam(defaultValue = "f16") String embeddingFormat) {
+        if (requests.size() > maxBatchTexts) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new MessageResponse("Error: At most " + maxBatchTexts + " texts per batch"));
         }
+        boolean withEmbedding = include != null && include.contains("embedding");
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchTimeoutMs);
         
-        AIAnalysisResponse analysis = bugService.getAIAnalysis(fullText.trim());
+        List<String> texts = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BugAnalysisRequest request = requests.get(i);
+            String fullText = (request.getTitle() != null ? request.getTitle() + " " : "") + 
+                             (request.getDescription() != null ? request.getDescription() : "");
+            if (fullText.trim().length() < 3) {
+                emit(emitter, i, defaultAnalysis());
+            } else {
+                texts.add(fullText);
+                positions.add(i);
+            }
+        }
         
-        if (analysis != null) {
-            return ResponseEntity.ok(analysis);
-        } else {
-            // Return default values if AI service fails
-            AIAnalysisResponse defaultResponse = new AIAnalysisResponse();
-            defaultResponse.setPriority("MEDIUM");
-            defaultResponse.setSeverity("NORMAL");
-            defaultResponse.setTags(Collections.emptyList());
-            defaultResponse.setConfidence(0.5);
-            defaultResponse.setNeedsReview(true);
-            return ResponseEntity.ok(defaultResponse);
+        bugService.analyzeBatch(texts, (index, analysis) -> {
+            AIAnalysisResponse item = analysis != null ? analysis.copy() : defaultAnalysis();
+            if (withEmbedding && item.getEmbedding() != null) {
+                item.setEncodedEmbedding(EncodedEmbedding.of(item.getEmbedding(), embeddingFormat));
+            }
+            emit(emitter, positions.get(index), item);
+        }).whenComplete((done, error) -> {
+            if (error != null) {
+                emitter.completeWithError(error);
+            } else {
+                emitter.complete();
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    private void emit(ResponseBodyEmitter emitter, int index, AIAnalysisResponse analysis) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(new BatchAnalysisItem(index, analysis));
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            // Results complete on different threads; keep each line whole
+            synchronized (emitter) {
+                emitter.send(line, MediaType.APPLICATION_NDJSON);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected or the batch timed out; the remaining results are discarded
+            emitter.completeWithError(e);
         }
     }
+
+    private static AIAnalysisResponse defaultAnalysis() {
+        AIAnalysisResponse defaultResponse = new AIAnalysisResponse();
+        defaultResponse.setPriority("MEDIUM");
+        defaultResponse.setSeverity("NORMAL");
+        defaultResponse.setTags(Collections.emptyList());
+        defaultResponse.setConfidence(0.5);
+        defaultResponse.setNeedsReview(true);
+        return defaultResponse;
+    }
     
     /**
-     * Find similar bugs
+     * Find similar bugs, optionally only among bugs with the given status, priority,
+     * severity, assignee or creation date range (e.g. "similar open bugs")
      */
     @PostMapping("/ai/similar")
-    public ResponseEntity<List<AIAnalysisResponse.SimilarBugInfo>> findSimilarBugs(
+    public CompletableFuture<ResponseEntity<List<AIAnalysisResponse.SimilarBugInfo>>> findSimilarBugs(
             @RequestBody BugAnalysisRequest request,
-            @RequestParam(defaultValue = "5") int limit) {
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String severity,
+            @RequestParam(required = false) String assignee,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         String fullText = (request.getTitle() != null ? request.getTitle() + " " : "") + 
                          (request.getDescription() != null ? request.getDescription() : "");
         
-        List<AIAnalysisResponse.SimilarBugInfo> similarBugs = 
-            bugService.findSimilarBugs(fullText, limit);
-        
-        return ResponseEntity.ok(similarBugs);
+        BugFilter filter = new BugFilter(status, priority, severity, assignee, from, to);
+        // Like /ai/analyze: no similar bugs rather than a late answer
+        return bugService.findSimilarBugsAsync(fullText, limit, filter, AIWorkScheduler.WorkClass.INTERACTIVE)
+            .completeOnTimeout(Collections.<AIAnalysisResponse.SimilarBugInfo>emptyList(),
+                analysisTimeoutMs, TimeUnit.MILLISECONDS)
+            .thenApply(ResponseEntity::ok);
     }
     
     // Request DTO for AI analysis
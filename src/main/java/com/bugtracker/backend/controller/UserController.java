@@ -0,0 +1,68 @@
+package com.bugtracker.backend.controller;
+
+import com.bugtracker.backend.model.User;
+import com.bugtracker.backend.payload.response.UserResponse;
+import com.bugtracker.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/admin/users")
+public class UserController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Paged user listing for admins.
+     * Issues one query for the page of ids and one for those users with their roles.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<UserResponse>> listUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0),
+                Math.min(Math.max(size, 1), MAX_PAGE_SIZE), Sort.by("id"));
+        Page<Long> ids = userRepository.findPageOfIds(pageRequest);
+        if (ids.isEmpty()) {
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(ids.getTotalElements()))
+                    .body(Collections.emptyList());
+        }
+
+        Map<Long, User> usersById = userRepository.findWithRolesByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // Keep the page order; the IN query does not guarantee it
+        List<UserResponse> users = ids.getContent().stream()
+                .map(usersById::get)
+                .filter(user -> user != null)
+                .map(user -> new UserResponse(
+                        user.getId(),
+                        user.getUsername(),
+                        user.getEmail(),
+                        user.getRoles().stream()
+                                .map(role -> role.getName().name())
+                                .sorted()
+                                .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(ids.getTotalElements()))
+                .body(users);
+    }
+}
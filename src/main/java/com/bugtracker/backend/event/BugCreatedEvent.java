@@ -0,0 +1,18 @@
+package com.bugtracker.backend.event;
+
+import com.bugtracker.backend.model.Bug;
+
+public class BugCreatedEvent extends BugEvent {
+
+    private final Bug after;
+
+    public BugCreatedEvent(Bug bug) {
+        super(bug.getId());
+        this.after = snapshot(bug);
+    }
+
+    @Override
+    public Bug getAfter() {
+        return after;
+    }
+}
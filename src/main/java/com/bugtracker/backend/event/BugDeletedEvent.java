@@ -0,0 +1,22 @@
+package com.bugtracker.backend.event;
+
+import com.bugtracker.backend.model.Bug;
+
+public class BugDeletedEvent extends BugEvent {
+
+    private final Bug before;
+
+    public BugDeletedEvent(Bug bug) {
+        super(bug.getId());
+        this.before = snapshot(bug);
+    }
+
+    public Bug getBefore() {
+        return before;
+    }
+
+    @Override
+    public Bug getAfter() {
+        return null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.bugtracker.backend.event;
+
+import com.bugtracker.backend.model.Bug;
+
+import java.time.Instant;
+
+/**
+ * Domain event for a committed change to a bug. Carries detached snapshots,
+ * so listeners running after commit never touch a managed entity.
+ */
+public abstract class BugEvent {
+
+    private final long bugId;
+    private final Instant occurredAt = Instant.now();
+
+    protected BugEvent(long bugId) {
+        this.bugId = bugId;
+    }
+
+    public long getBugId() {
+        return bugId;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    /**
+     * State of the bug after the change, or null when it was deleted
+     */
+    public abstract Bug getAfter();
+
+    /**
+     * Detached copy of the persistent fields of a bug
+     */
+    public static Bug snapshot(Bug bug) {
+        return Bug.builder()
+            .id(bug.getId())
+            .title(bug.getTitle())
+            .description(bug.getDescription())
+            .priority(bug.getPriority())
+            .severity(bug.getSeverity())
+            .tags(bug.getTags())
+            .status(bug.getStatus())
+            .assignee(bug.getAssignee())
+            .reporter(bug.getReporter())
+            .dueDate(bug.getDueDate())
+            .createdAt(bug.getCreatedAt())
+            .updatedAt(bug.getUpdatedAt())
+            .aiAnalyzed(bug.getAiAnalyzed())
+            .minhashSignature(bug.getMinhashSignature())
+            .build();
+    }
+}
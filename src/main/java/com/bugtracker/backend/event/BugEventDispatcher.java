@@ -0,0 +1,195 @@
+package com.bugtracker.backend.event;
+
+import com.bugtracker.backend.model.Bug;
+import com.bugtracker.backend.repository.BugRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Delivers committed bug events to every {@link BugIndexSubscriber}.
+ * Events are striped by bug id onto single-threaded workers, so changes to one bug
+ * are applied in commit order while unrelated bugs proceed in parallel. Each worker
+ * drains its queue in batches and keeps only the last event per bug in a batch.
+ * A dropped event (full queue) or a failing subscriber marks the indexes as having
+ * a gap, and they are rebuilt from the database in the background.
+ */
+@Component
+public class BugEventDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BugEventDispatcher.class);
+
+    private final List<BugIndexSubscriber> subscribers;
+    private final BugRepository bugRepository;
+    private final int batchSize;
+    private final List<BlockingQueue<BugEvent>> stripes = new ArrayList<>();
+    private final ExecutorService workers;
+    private final ExecutorService rebuilder;
+    // Workers apply under the read lock; a rebuild takes the write lock so no batch interleaves with it
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    public BugEventDispatcher(
+            List<BugIndexSubscriber> subscribers,
+            BugRepository bugRepository,
+            @Value("${index.events.stripes:4}") int stripeCount,
+            @Value("${index.events.queue-capacity:10000}") int queueCapacity,
+            @Value("${index.events.batch-size:64}") int batchSize) {
+        this.subscribers = subscribers;
+        this.bugRepository = bugRepository;
+        this.batchSize = Math.max(1, batchSize);
+        int count = Math.max(1, stripeCount);
+        this.workers = Executors.newFixedThreadPool(count, daemon("bug-index-"));
+        this.rebuilder = Executors.newSingleThreadExecutor(daemon("bug-index-rebuild-"));
+        for (int i = 0; i < count; i++) {
+            BlockingQueue<BugEvent> queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            stripes.add(queue);
+            workers.execute(() -> drain(queue));
+        }
+    }
+
+    /**
+     * Subscribers that can restore a snapshot do so; the database is only read if some cannot
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuildLock.writeLock().lock();
+        try {
+            long count = bugRepository.count();
+            LocalDateTime watermark = bugRepository.findLatestModification();
+            List<BugIndexSubscriber> stale = new ArrayList<>();
+            for (BugIndexSubscriber subscriber : subscribers) {
+                if (!subscriber.restore(count, watermark)) {
+                    stale.add(subscriber);
+                }
+            }
+            if (!stale.isEmpty()) {
+                rebuild(stale);
+            }
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs after the publishing transaction commits; events from rolled-back transactions are never seen.
+     * Falls back to immediate delivery when published outside a transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBugEvent(BugEvent event) {
+        BlockingQueue<BugEvent> queue = stripes.get(Math.floorMod(Long.hashCode(event.getBugId()), stripes.size()));
+        if (!queue.offer(event)) {
+            logger.warn("Index event queue full, dropping event for bug {}", event.getBugId());
+            requestRebuild();
+        }
+    }
+
+    private void drain(BlockingQueue<BugEvent> queue) {
+        List<BugEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            apply(batch);
+            batch.clear();
+        }
+    }
+
+    private void apply(List<BugEvent> batch) {
+        // Later events for the same bug supersede earlier ones within the batch
+        Map<Long, BugEvent> latest = new LinkedHashMap<>();
+        for (BugEvent event : batch) {
+            latest.remove(event.getBugId());
+            latest.put(event.getBugId(), event);
+        }
+        rebuildLock.readLock().lock();
+        try {
+            for (BugIndexSubscriber subscriber : subscribers) {
+                for (BugEvent event : latest.values()) {
+                    Bug after = event.getAfter();
+                    if (after == null) {
+                        subscriber.remove(event.getBugId());
+                    } else {
+                        subscriber.index(after);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Index update failed, scheduling rebuild: {}", e.getMessage());
+            requestRebuild();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Record a gap and rebuild every subscriber from the database in the background.
+     * Requests arriving while a rebuild is queued are folded into it.
+     */
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild(subscribers);
+                } catch (RuntimeException e) {
+                    logger.error("Index rebuild failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void rebuild(List<BugIndexSubscriber> targets) {
+        rebuildLock.writeLock().lock();
+        try {
+            List<Bug> bugs = bugRepository.findAll();
+            for (BugIndexSubscriber subscriber : targets) {
+                subscriber.rebuild(bugs);
+            }
+            logger.info("Rebuilt {} bug indexes from {} bugs", targets.size(), bugs.size());
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        workers.shutdownNow();
+        rebuilder.shutdownNow();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
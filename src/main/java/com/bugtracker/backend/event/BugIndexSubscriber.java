@@ -0,0 +1,38 @@
+package com.bugtracker.backend.event;
+
+import com.bugtracker.backend.model.Bug;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A derived in-memory structure over bugs, kept in sync by {@link BugEventDispatcher}.
+ * Updates for one bug arrive in commit order on a single thread; different bugs
+ * may be applied concurrently, so implementations guard their own state.
+ */
+public interface BugIndexSubscriber {
+
+    /**
+     * Add or replace a bug; must be idempotent
+     */
+    void index(Bug bug);
+
+    void remove(long bugId);
+
+    /**
+     * Replace all state with the given bugs, loaded from the database
+     */
+    void rebuild(List<Bug> bugs);
+
+    /**
+     * Restore state from a local snapshot at startup instead of a rebuild.
+     *
+     * @param expectedCount number of bugs in the database, to detect missed deletes
+     * @param expectedWatermark latest bug modification time in the database (null when empty),
+     *                          to detect missed creates and updates
+     * @return false when there is no usable snapshot and {@link #rebuild} is needed
+     */
+    default boolean restore(long expectedCount, LocalDateTime expectedWatermark) {
+        return false;
+    }
+}
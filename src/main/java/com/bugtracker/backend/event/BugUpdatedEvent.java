@@ -0,0 +1,27 @@
+package com.bugtracker.backend.event;
+
+import com.bugtracker.backend.model.Bug;
+
+public class BugUpdatedEvent extends BugEvent {
+
+    private final Bug before;
+    private final Bug after;
+
+    /**
+     * @param before snapshot taken before the entity was modified
+     */
+    public BugUpdatedEvent(Bug before, Bug after) {
+        super(after.getId());
+        this.before = before;
+        this.after = snapshot(after);
+    }
+
+    public Bug getBefore() {
+        return before;
+    }
+
+    @Override
+    public Bug getAfter() {
+        return after;
+    }
+}
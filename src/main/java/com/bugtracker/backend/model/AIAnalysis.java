@@ -0,0 +1,49 @@
+package com.bugtracker.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * AI analysis of a bug, one row per bug and model version. Rows are written when the bug is
+ * analyzed, replaced when its text is edited, and served from here instead of re-running the analysis;
+ * low-confidence ones form the review queue.
+ */
+@Entity
+@Table(name = "ai_analysis",
+    uniqueConstraints = @UniqueConstraint(name = "uk_ai_analysis_bug_model", columnNames = {"bug_id", "model_version"}),
+    indexes = @Index(name = "idx_ai_analysis_review", columnList = "needs_review, confidence"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AIAnalysis {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bug_id", nullable = false)
+    private Long bugId;
+
+    @Column(name = "model_version", nullable = false, length = 100)
+    private String modelVersion;
+
+    private String severity;
+
+    private String priority;
+
+    private String tags;  // Comma-separated, like Bug.tags
+
+    @Column(length = 2000)
+    private String summary;
+
+    private Double confidence;
+
+    @Column(name = "needs_review")
+    private Boolean needsReview;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime reviewedAt;
+}
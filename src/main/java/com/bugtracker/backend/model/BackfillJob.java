@@ -0,0 +1,52 @@
+package com.bugtracker.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a re-embedding backfill towards a model version. The last processed bug id is
+ * committed together with each batch of results, so a restarted job resumes after it.
+ */
+@Entity
+@Table(name = "backfill_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BackfillJob {
+    public enum Status { RUNNING, PAUSED, COMPLETED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "target_model_version")
+    private String targetModelVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Status status;
+
+    @Column(name = "last_bug_id")
+    @Builder.Default
+    private Long lastBugId = 0L;
+
+    private Long totalBugs;
+
+    @Builder.Default
+    private Long processed = 0L;  // Re-embedded in this job
+
+    @Builder.Default
+    private Long skipped = 0L;  // Already at the target version
+
+    @Builder.Default
+    private Long failed = 0L;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+}
@@ -1,9 +1,13 @@
 package com.bugtracker.backend.model;
 
+import com.bugtracker.backend.payload.response.AIAnalysisResponse;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
 @Table(name = "bugs")
@@ -35,9 +39,21 @@ public class Bug{
 
     private LocalDateTime dueDate;
     private LocalDateTime createdAt;
+    // Last change made through BugService; indexes use the latest value as a freshness watermark
+    private LocalDateTime updatedAt;
     
     // AI analysis metadata
     @Column(name = "ai_analyzed")
     @Builder.Default
     private Boolean aiAnalyzed = false;  // Whether AI analysis was performed
+    
+    // MinHash signature of title + description for near-duplicate detection
+    @Column(name = "minhash_signature")
+    @JsonIgnore
+    private byte[] minhashSignature;
+    
+    // Possible duplicates found at creation time; returned in the create response only
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<AIAnalysisResponse.SimilarBugInfo> duplicateCandidates;
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.bugtracker.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Remote-model embedding of a bug, int8-quantized with a per-vector scale and offset
+ * (value ~ offset + scale * code), so a 768-dim vector is kept in memory in 768 bytes.
+ * The full-precision vector is stored alongside for re-ranking search candidates; only
+ * the candidates' rows are read back.
+ */
+@Entity
+@Table(name = "bug_embeddings")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BugEmbedding implements Persistable<Long> {
+    @Id
+    @Column(name = "bug_id")
+    private Long bugId;
+
+    @Column(name = "model_version")
+    private String modelVersion;
+
+    private Integer dimensions;
+
+    @Column(name = "quant_scale")
+    private Float scale;
+
+    @Column(name = "quant_offset")
+    private Float offset;
+
+    @Column(name = "codes")
+    private byte[] codes;
+
+    // float32 little-endian; null for rows written before it was stored
+    @Column(name = "vector")
+    private byte[] vector;
+
+    private LocalDateTime updatedAt;
+
+    // The id is assigned (the bug's id), so tell Spring Data which rows are new: they are
+    // then persisted and batched directly instead of being merged with a select per row
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    public Long getId() {
+        return bugId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newEntity = false;
+    }
+}
@@ -1,8 +1,10 @@
 package com.bugtracker.backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
 
 @Entity
+@Immutable  // Roles are fixed reference data, shared through RoleRegistry
 @Table(name = "roles")
 public class Role {
     @Id
@@ -1,5 +1,7 @@
 package com.bugtracker.backend.payload.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,12 +16,23 @@ public class AIAnalysisResponse {
     private String priority;
     private List<String> tags;
     private String summary;
-    private List<Double> embedding;
+    @JsonIgnore
+    private float[] embedding;  // Kept server-side; sent only on request, as encodedEmbedding
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private EncodedEmbedding encodedEmbedding;
     private Double confidence;  // ML model confidence score (0.0-1.0)
     private String modelVersion;  // Model version for tracking
     private Boolean needsReview;  // True if confidence < threshold
     private List<SimilarBugInfo> similarBugs;
-    
+
+    /**
+     * Shallow copy, for handing out a shared (cached) analysis that the receiver may modify
+     */
+    public AIAnalysisResponse copy() {
+        return new AIAnalysisResponse(severity, priority, tags, summary, embedding, encodedEmbedding,
+            confidence, modelVersion, needsReview, similarBugs);
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
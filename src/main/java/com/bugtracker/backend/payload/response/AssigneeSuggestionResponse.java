@@ -0,0 +1,17 @@
+package com.bugtracker.backend.payload.response;
+
+import com.bugtracker.backend.search.AssigneeRecommender;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssigneeSuggestionResponse {
+    private Long bugId;
+    private List<AssigneeRecommender.Suggestion> assignees;
+    private List<AssigneeRecommender.Suggestion> tags;
+}
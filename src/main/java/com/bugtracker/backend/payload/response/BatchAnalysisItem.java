@@ -0,0 +1,16 @@
+package com.bugtracker.backend.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One NDJSON line of a batch analysis: the analysis of the text at {@code index} in the request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAnalysisItem {
+    private int index;
+    private AIAnalysisResponse analysis;
+}
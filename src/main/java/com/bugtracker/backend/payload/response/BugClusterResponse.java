@@ -0,0 +1,17 @@
+package com.bugtracker.backend.payload.response;
+
+import com.bugtracker.backend.search.BugClusterIndex;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BugClusterResponse {
+    private Long bugId;
+    private BugClusterIndex.Cluster cluster;  // Null until the bug has been indexed
+    private List<String> solutions;
+}
@@ -0,0 +1,81 @@
+package com.bugtracker.backend.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+
+/**
+ * Embedding as base64 of little-endian IEEE floats, e.g. for a 768-dim vector
+ * about 2 KB (f16) or 4 KB (f32) instead of ~15 KB of JSON numbers.
+ * Decode in JS with {@code new Float32Array(bytes.buffer)} (f32) or a Float16Array/DataView (f16).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EncodedEmbedding {
+    public static final String F16 = "f16le";
+    public static final String F32 = "f32le";
+
+    private String encoding;
+    private Integer dimensions;
+    private String data;
+
+    /**
+     * @param format "f16" for half precision, anything else for single precision
+     */
+    public static EncodedEmbedding of(float[] vector, String format) {
+        boolean half = "f16".equalsIgnoreCase(format) || F16.equalsIgnoreCase(format);
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * (half ? 2 : 4)).order(ByteOrder.LITTLE_ENDIAN);
+        for (float value : vector) {
+            if (half) {
+                buffer.putShort(toHalf(value));
+            } else {
+                buffer.putFloat(value);
+            }
+        }
+        return new EncodedEmbedding(half ? F16 : F32, vector.length, Base64.getEncoder().encodeToString(buffer.array()));
+    }
+
+    /**
+     * IEEE 754 binary16 with round-to-nearest-even (Float.floatToFloat16 needs Java 20)
+     */
+    static short toHalf(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int floatExponent = (bits >>> 23) & 0xff;
+        int mantissa = bits & 0x7fffff;
+        if (floatExponent == 0xff) {
+            return (short) (sign | (mantissa != 0 ? 0x7e00 : 0x7c00));  // NaN or infinity
+        }
+        int exponent = floatExponent - 127 + 15;
+        if (exponent >= 0x1f) {
+            return (short) (sign | 0x7c00);  // overflow to infinity
+        }
+        if (exponent <= 0) {
+            // Subnormal half (or zero): shift the mantissa with its implicit bit into place
+            if (exponent < -10) {
+                return (short) sign;
+            }
+            mantissa |= 0x800000;
+            int shift = 14 - exponent;
+            int half = mantissa >> shift;
+            int remainder = mantissa & ((1 << shift) - 1);
+            int midpoint = 1 << (shift - 1);
+            if (remainder > midpoint || (remainder == midpoint && (half & 1) == 1)) {
+                half++;
+            }
+            return (short) (sign | half);
+        }
+        int half = (exponent << 10) | (mantissa >> 13);
+        int remainder = mantissa & 0x1fff;
+        // A carry out of the mantissa correctly bumps the exponent (up to infinity)
+        if (remainder > 0x1000 || (remainder == 0x1000 && (half & 1) == 1)) {
+            half++;
+        }
+        return (short) (sign | half);
+    }
+}
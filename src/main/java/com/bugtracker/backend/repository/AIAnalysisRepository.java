@@ -0,0 +1,24 @@
+package com.bugtracker.backend.repository;
+
+import com.bugtracker.backend.model.AIAnalysis;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AIAnalysisRepository extends JpaRepository<AIAnalysis, Long> {
+    Optional<AIAnalysis> findFirstByBugIdOrderByCreatedAtDesc(Long bugId);
+
+    Optional<AIAnalysis> findByBugIdAndModelVersion(Long bugId, String modelVersion);
+
+    List<AIAnalysis> findByBugIdIn(Collection<Long> bugIds);
+
+    /**
+     * Analyses awaiting review, least confident first; served by idx_ai_analysis_review
+     */
+    List<AIAnalysis> findByNeedsReviewTrueOrderByConfidenceAsc(Pageable pageable);
+
+    void deleteByBugId(Long bugId);
+}
@@ -0,0 +1,11 @@
+package com.bugtracker.backend.repository;
+
+import com.bugtracker.backend.model.BackfillJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface BackfillJobRepository extends JpaRepository<BackfillJob, Long> {
+    List<BackfillJob> findByStatus(BackfillJob.Status status);
+    List<BackfillJob> findAllByOrderByIdDesc();
+}
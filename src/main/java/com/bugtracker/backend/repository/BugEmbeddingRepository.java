@@ -0,0 +1,7 @@
+package com.bugtracker.backend.repository;
+
+import com.bugtracker.backend.model.BugEmbedding;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BugEmbeddingRepository extends JpaRepository<BugEmbedding, Long> {
+}
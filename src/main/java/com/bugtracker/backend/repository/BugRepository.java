@@ -1,8 +1,12 @@
 package com.bugtracker.backend.repository;
 
 import com.bugtracker.backend.model.Bug;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BugRepository extends JpaRepository<Bug, Long>{
@@ -10,4 +14,12 @@ public interface BugRepository extends JpaRepository<Bug, Long>{
     List<Bug> findByPriority(String priority);
     List<Bug> findByAssignee(String assignee);
 
+    // Keyset chunk for background scans: seeks by primary key, so late chunks cost the same as early ones
+    @Query("select b from Bug b where b.id > :afterId order by b.id")
+    List<Bug> findChunkAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Latest modification time over all bugs; rows written before updatedAt existed count by createdAt
+    @Query("select max(coalesce(b.updatedAt, b.createdAt)) from Bug b")
+    LocalDateTime findLatestModification();
+
 }
\ No newline at end of file
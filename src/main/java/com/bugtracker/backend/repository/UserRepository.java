@@ -1,9 +1,15 @@
 package com.bugtracker.backend.repository;
 
 import com.bugtracker.backend.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    // Loads the user and its roles in a single round-trip (used by the security path)
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByUsername(String username);
+
+    // Paging over ids only; roles are then fetched for the whole page in one query,
+    // avoiding both N+1 role loading and in-memory pagination of a collection fetch join
+    @Query(value = "select u.id from User u", countQuery = "select count(u) from User u")
+    Page<Long> findPageOfIds(Pageable pageable);
+
+    @EntityGraph(attributePaths = "roles")
+    List<User> findWithRolesByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,221 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.ai.HashingEmbedder;
+import com.bugtracker.backend.event.BugIndexSubscriber;
+import com.bugtracker.backend.model.Bug;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Running mean embedding of the resolved bugs per assignee and per tag. A suggestion embeds
+ * the bug once and scores it against these centroids, so its cost depends on the number of
+ * assignees and tags, not on the number of bugs. Each resolved bug's contribution is kept
+ * (int8-quantized) so a change of assignee, tags or status moves it between centroids exactly.
+ */
+@Component
+public class AssigneeRecommender implements BugIndexSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssigneeRecommender.class);
+
+    private final HashingEmbedder embedder;
+    private final Set<String> resolvedStatuses;
+    private final int minSupport;
+
+    // Sums and contributions are guarded by this; centroids are immutable and published for lock-free reads
+    private final Map<String, Accumulator> assigneeSums = new HashMap<>();
+    private final Map<String, Accumulator> tagSums = new HashMap<>();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private final Map<String, Centroid> assigneeCentroids = new ConcurrentHashMap<>();
+    private final Map<String, Centroid> tagCentroids = new ConcurrentHashMap<>();
+
+    private static final class Accumulator {
+        final float[] sum;
+        int count;
+
+        Accumulator(int dimensions) {
+            this.sum = new float[dimensions];
+        }
+    }
+
+    private static final class Contribution {
+        final String assignee;
+        final List<String> tags;
+        final QuantizedVector vector;
+
+        Contribution(String assignee, List<String> tags, QuantizedVector vector) {
+            this.assignee = assignee;
+            this.tags = tags;
+            this.vector = vector;
+        }
+    }
+
+    private static final class Centroid {
+        final float[] unit;
+        final int count;
+
+        Centroid(float[] unit, int count) {
+            this.unit = unit;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Assignee or tag with its similarity to the bug and how many resolved bugs back it
+     */
+    public static final class Suggestion {
+        private final String name;
+        private final double score;
+        private final int resolvedBugs;
+
+        Suggestion(String name, double score, int resolvedBugs) {
+            this.name = name;
+            this.score = score;
+            this.resolvedBugs = resolvedBugs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public int getResolvedBugs() {
+            return resolvedBugs;
+        }
+    }
+
+    public AssigneeRecommender(
+            HashingEmbedder embedder,
+            @Value("${ai.recommender.resolved-statuses:Resolved,Closed,Done,Fixed}") String[] resolvedStatuses,
+            @Value("${ai.recommender.min-support:2}") int minSupport) {
+        this.embedder = embedder;
+        this.resolvedStatuses = Arrays.stream(resolvedStatuses)
+            .map(status -> status.trim().toLowerCase())
+            .collect(Collectors.toSet());
+        this.minSupport = Math.max(1, minSupport);
+    }
+
+    @Override
+    public void rebuild(List<Bug> bugs) {
+        synchronized (this) {
+            assigneeSums.clear();
+            tagSums.clear();
+            contributions.clear();
+            assigneeCentroids.clear();
+            tagCentroids.clear();
+            for (Bug bug : bugs) {
+                index(bug);
+            }
+        }
+        logger.info("Assignee centroids built for {} assignees and {} tags from {} resolved bugs",
+            assigneeCentroids.size(), tagCentroids.size(), contributions.size());
+    }
+
+    @Override
+    public synchronized void index(Bug bug) {
+        if (bug.getId() == null) {
+            return;
+        }
+        remove(bug.getId());
+        String status = bug.getStatus() != null ? bug.getStatus().trim().toLowerCase() : "";
+        String assignee = bug.getAssignee() != null && !bug.getAssignee().isBlank() ? bug.getAssignee().trim() : null;
+        List<String> tags = tagsOf(bug);
+        if (!resolvedStatuses.contains(status) || (assignee == null && tags.isEmpty())) {
+            return;
+        }
+        Contribution contribution = new Contribution(assignee, tags,
+            QuantizedVector.quantize(embedder.embed(LocalSimilarityIndex.textOf(bug))));
+        contributions.put(bug.getId(), contribution);
+        apply(contribution, 1);
+    }
+
+    @Override
+    public synchronized void remove(long bugId) {
+        Contribution contribution = contributions.remove(bugId);
+        if (contribution != null) {
+            apply(contribution, -1);
+        }
+    }
+
+    /**
+     * Assignees whose resolved bugs are closest to the text, best first
+     */
+    public List<Suggestion> suggestAssignees(float[] query, int limit) {
+        return rank(assigneeCentroids, query, limit);
+    }
+
+    /**
+     * Tags whose resolved bugs are closest to the text, best first
+     */
+    public List<Suggestion> suggestTags(float[] query, int limit) {
+        return rank(tagCentroids, query, limit);
+    }
+
+    public float[] embed(String text) {
+        return embedder.embed(text);
+    }
+
+    private List<Suggestion> rank(Map<String, Centroid> centroids, float[] query, int limit) {
+        List<Suggestion> scored = new ArrayList<>();
+        for (Map.Entry<String, Centroid> entry : centroids.entrySet()) {
+            Centroid centroid = entry.getValue();
+            if (centroid.count >= minSupport) {
+                scored.add(new Suggestion(entry.getKey(), VectorIndex.dot(query, centroid.unit), centroid.count));
+            }
+        }
+        scored.sort(Comparator.comparingDouble(Suggestion::getScore).reversed());
+        return scored.size() > limit ? new ArrayList<>(scored.subList(0, limit)) : scored;
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        float[] vector = contribution.vector.dequantize();
+        if (contribution.assignee != null) {
+            update(assigneeSums, assigneeCentroids, contribution.assignee, vector, sign);
+        }
+        for (String tag : contribution.tags) {
+            update(tagSums, tagCentroids, tag, vector, sign);
+        }
+    }
+
+    private void update(Map<String, Accumulator> sums, Map<String, Centroid> centroids,
+                        String key, float[] vector, int sign) {
+        Accumulator accumulator = sums.computeIfAbsent(key, k -> new Accumulator(vector.length));
+        for (int i = 0; i < vector.length; i++) {
+            accumulator.sum[i] += sign * vector[i];
+        }
+        accumulator.count += sign;
+        if (accumulator.count <= 0) {
+            sums.remove(key);
+            centroids.remove(key);
+            return;
+        }
+        // The mean's direction is the sum's, so normalizing the sum gives cosine scores directly
+        double norm = Math.sqrt(VectorIndex.dot(accumulator.sum, accumulator.sum));
+        float[] unit = new float[vector.length];
+        if (norm > 0) {
+            for (int i = 0; i < unit.length; i++) {
+                unit[i] = (float) (accumulator.sum[i] / norm);
+            }
+        }
+        centroids.put(key, new Centroid(unit, accumulator.count));
+    }
+
+    private static List<String> tagsOf(Bug bug) {
+        if (bug.getTags() == null || bug.getTags().isBlank()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(bug.getTags().split(","))
+            .map(tag -> tag.trim().toLowerCase())
+            .filter(tag -> !tag.isEmpty())
+            .distinct()
+            .collect(Collectors.toList());
+    }
+}
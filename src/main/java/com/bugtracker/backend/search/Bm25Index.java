@@ -0,0 +1,170 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.event.BugIndexSubscriber;
+import com.bugtracker.backend.model.Bug;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory BM25 inverted index over bug titles and descriptions, maintained incrementally.
+ * Catches exact error strings and identifiers that embedding similarity tends to blur.
+ */
+@Component
+public class Bm25Index implements BugIndexSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(Bm25Index.class);
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Function words carry no signal about the bug and would otherwise dominate short queries
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "can", "do", "does", "for",
+        "from", "has", "have", "he", "her", "his", "how", "if", "in", "into", "is", "it", "its", "me",
+        "my", "no", "not", "of", "on", "or", "our", "she", "so", "that", "the", "their", "them", "then",
+        "there", "these", "they", "this", "to", "too", "us", "was", "we", "were", "what", "when",
+        "where", "which", "while", "who", "why", "will", "with", "would", "you", "your");
+
+    private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, Integer>> documents = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> lengths = new ConcurrentHashMap<>();
+    private volatile long totalLength;
+
+    @Override
+    public void rebuild(List<Bug> bugs) {
+        synchronized (this) {
+            postings.clear();
+            documents.clear();
+            lengths.clear();
+            totalLength = 0;
+            for (Bug bug : bugs) {
+                index(bug);
+            }
+        }
+        logger.info("BM25 index built with {} bugs and {} terms", documents.size(), postings.size());
+    }
+
+    @Override
+    public synchronized void index(Bug bug) {
+        if (bug.getId() == null) {
+            return;
+        }
+        remove(bug.getId());
+        Map<String, Integer> terms = termFrequencies(LocalSimilarityIndex.textOf(bug));
+        int length = 0;
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new ConcurrentHashMap<>()).put(bug.getId(), term.getValue());
+            length += term.getValue();
+        }
+        documents.put(bug.getId(), terms);
+        lengths.put(bug.getId(), length);
+        totalLength += length;
+    }
+
+    @Override
+    public synchronized void remove(long bugId) {
+        Map<String, Integer> terms = documents.remove(bugId);
+        if (terms == null) {
+            return;
+        }
+        lengths.remove(bugId);
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfPresent(term.getKey(), (k, docs) -> {
+                docs.remove(bugId);
+                return docs.isEmpty() ? null : docs;
+            });
+            totalLength -= term.getValue();
+        }
+    }
+
+    /**
+     * Top-k bugs by BM25 score, best first; only postings of the query terms are touched
+     */
+    public List<ScoredId> search(String query, int k) {
+        return search(query, k, null);
+    }
+
+    /**
+     * Top-k among the eligible ids (null means all); ineligible postings are skipped before scoring
+     */
+    public List<ScoredId> search(String query, int k, IdBitmap eligible) {
+        return search(query, k, 0.0, eligible);
+    }
+
+    /**
+     * Top-k among the eligible ids with a score floor. Scores are normalized to [0, 1] by the
+     * highest score the query's indexed terms could reach, so the floor means the same for
+     * one-word and long queries.
+     */
+    public List<ScoredId> search(String query, int k, double minScore, IdBitmap eligible) {
+        int n = documents.size();
+        if (n == 0 || k <= 0) {
+            return Collections.emptyList();
+        }
+        double avgLength = Math.max(1.0, (double) totalLength / n);
+        Map<Long, Double> scores = new HashMap<>();
+        double maxScore = 0.0;
+        for (String term : termFrequencies(query).keySet()) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs == null) {
+                continue;
+            }
+            int df = docs.size();
+            double idf = Math.log(1.0 + (n - df + 0.5) / (df + 0.5));
+            // The tf component approaches K1 + 1 as the term frequency grows
+            maxScore += idf * (K1 + 1);
+            for (Map.Entry<Long, Integer> posting : docs.entrySet()) {
+                if (eligible != null && !eligible.contains(posting.getKey())) {
+                    continue;
+                }
+                int length = lengths.getOrDefault(posting.getKey(), 0);
+                double tf = posting.getValue();
+                double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+                scores.merge(posting.getKey(), score, Double::sum);
+            }
+        }
+
+        PriorityQueue<ScoredId> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble(ScoredId::getScore));
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            double score = entry.getValue() / maxScore;
+            if (score < minScore) {
+                continue;
+            }
+            best.add(new ScoredId(entry.getKey(), score));
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+        List<ScoredId> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(ScoredId::getScore).reversed());
+        return result;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    // Lowercase alphanumeric terms without stopwords; identifiers such as NullPointerException stay whole
+    static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> terms = new HashMap<>();
+        if (text == null) {
+            return terms;
+        }
+        StringBuilder term = new StringBuilder();
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c) || c == '_') {
+                term.append(Character.toLowerCase(c));
+            } else if (term.length() > 0) {
+                String word = term.toString();
+                if (word.length() > 1 && !STOPWORDS.contains(word)) {
+                    terms.merge(word, 1, Integer::sum);
+                }
+                term.setLength(0);
+            }
+        }
+        return terms;
+    }
+}
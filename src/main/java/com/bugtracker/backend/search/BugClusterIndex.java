@@ -0,0 +1,476 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.ai.HashingEmbedder;
+import com.bugtracker.backend.event.BugIndexSubscriber;
+import com.bugtracker.backend.model.Bug;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Online spherical k-means over {@link HashingEmbedder} vectors. A new or edited bug joins its
+ * nearest centroid in O(k) and nudges it towards itself; removals only leave their cluster.
+ * A scheduled mini-batch refit over all stored vectors corrects the drift this causes. The
+ * model is immutable and swapped in with one volatile write, so readers never wait on updates
+ * or on a refit. Cluster ids are positions in the current model and change on every refit.
+ */
+@Component
+public class BugClusterIndex implements BugIndexSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(BugClusterIndex.class);
+
+    private final HashingEmbedder embedder;
+    private final Set<String> resolvedStatuses;
+    private final int k;
+    private final int batchSize;
+    private final int iterations;
+    private final double seedSimilarity;
+
+    // Written under this; read without locking
+    private volatile Model model = Model.empty();
+    // Writes since the last refit started
+    private long changes;
+    private final Object refitLock = new Object();
+
+    private static final class Member {
+        final long bugId;
+        final String title;
+        final String assignee;
+        final boolean resolved;
+        final QuantizedVector vector;
+        final int cluster;
+
+        Member(long bugId, String title, String assignee, boolean resolved, QuantizedVector vector, int cluster) {
+            this.bugId = bugId;
+            this.title = title;
+            this.assignee = assignee;
+            this.resolved = resolved;
+            this.vector = vector;
+            this.cluster = cluster;
+        }
+
+        Member inCluster(int newCluster) {
+            return new Member(bugId, title, assignee, resolved, vector, newCluster);
+        }
+    }
+
+    /**
+     * Unit centroids, their member sets and the members' cluster assignments. Online updates
+     * replace the centroid arrays but share the (concurrent) members map and sets; a refit builds
+     * everything anew, so cluster ids and the sets they index are always published together.
+     */
+    private static final class Model {
+        final float[][] centroids;
+        final long[] representatives;
+        final List<Set<Long>> bugs;
+        final List<Set<Long>> resolved;
+        final Map<Long, Member> members;
+
+        Model(float[][] centroids, long[] representatives, List<Set<Long>> bugs, List<Set<Long>> resolved,
+              Map<Long, Member> members) {
+            this.centroids = centroids;
+            this.representatives = representatives;
+            this.bugs = bugs;
+            this.resolved = resolved;
+            this.members = members;
+        }
+
+        static Model empty() {
+            return new Model(new float[0][], new long[0], new ArrayList<>(), new ArrayList<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * One cluster of the grouped-bugs view
+     */
+    public static final class Cluster {
+        private final int id;
+        private final int size;
+        private final int resolvedBugs;
+        private final Long representativeBugId;
+        private final String representativeTitle;
+        private final List<Long> bugIds;
+
+        Cluster(int id, int size, int resolvedBugs, Long representativeBugId, String representativeTitle, List<Long> bugIds) {
+            this.id = id;
+            this.size = size;
+            this.resolvedBugs = resolvedBugs;
+            this.representativeBugId = representativeBugId;
+            this.representativeTitle = representativeTitle;
+            this.bugIds = bugIds;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getResolvedBugs() {
+            return resolvedBugs;
+        }
+
+        public Long getRepresentativeBugId() {
+            return representativeBugId;
+        }
+
+        public String getRepresentativeTitle() {
+            return representativeTitle;
+        }
+
+        public List<Long> getBugIds() {
+            return bugIds;
+        }
+    }
+
+    public BugClusterIndex(
+            HashingEmbedder embedder,
+            @Value("${ai.clusters.resolved-statuses:Resolved,Closed,Done,Fixed}") String[] resolvedStatuses,
+            @Value("${ai.clusters.k:24}") int k,
+            @Value("${ai.clusters.batch-size:256}") int batchSize,
+            @Value("${ai.clusters.iterations:50}") int iterations,
+            @Value("${ai.clusters.seed-similarity:0.3}") double seedSimilarity) {
+        this.embedder = embedder;
+        this.resolvedStatuses = Arrays.stream(resolvedStatuses)
+            .map(status -> status.trim().toLowerCase())
+            .collect(Collectors.toSet());
+        this.k = Math.max(1, k);
+        this.batchSize = Math.max(1, batchSize);
+        this.iterations = Math.max(1, iterations);
+        this.seedSimilarity = seedSimilarity;
+    }
+
+    @Override
+    public void rebuild(List<Bug> bugs) {
+        synchronized (this) {
+            model = Model.empty();
+            for (Bug bug : bugs) {
+                index(bug);
+            }
+        }
+        refit();
+    }
+
+    @Override
+    public synchronized void index(Bug bug) {
+        if (bug.getId() == null) {
+            return;
+        }
+        remove(bug.getId());
+        float[] vector = embedder.embed(LocalSimilarityIndex.textOf(bug));
+        String status = bug.getStatus() != null ? bug.getStatus().trim().toLowerCase() : "";
+        Model current = model;
+        int cluster = nearest(current.centroids, vector);
+        float[][] centroids = current.centroids.clone();
+        long[] representatives = current.representatives;
+        List<Set<Long>> bugs = current.bugs;
+        List<Set<Long>> resolved = current.resolved;
+        if (cluster < 0 || (centroids.length < k && VectorIndex.dot(vector, centroids[cluster]) < seedSimilarity)) {
+            // Too far from every centroid while there is room: this bug seeds a cluster of its own
+            cluster = centroids.length;
+            centroids = Arrays.copyOf(centroids, cluster + 1);
+            centroids[cluster] = vector;
+            representatives = Arrays.copyOf(representatives, cluster + 1);
+            representatives[cluster] = bug.getId();
+            bugs = new ArrayList<>(bugs);
+            bugs.add(ConcurrentHashMap.newKeySet());
+            resolved = new ArrayList<>(resolved);
+            resolved.add(ConcurrentHashMap.newKeySet());
+        } else {
+            // Online k-means step with learning rate 1/n, kept on the unit sphere
+            centroids[cluster] = step(centroids[cluster], vector, 1.0 / (bugs.get(cluster).size() + 1));
+        }
+        Member member = new Member(bug.getId(), bug.getTitle(), bug.getAssignee(), resolvedStatuses.contains(status),
+            QuantizedVector.quantize(vector), cluster);
+        current.members.put(member.bugId, member);
+        bugs.get(cluster).add(member.bugId);
+        if (member.resolved) {
+            resolved.get(cluster).add(member.bugId);
+        }
+        model = new Model(centroids, representatives, bugs, resolved, current.members);
+        changes++;
+    }
+
+    @Override
+    public synchronized void remove(long bugId) {
+        Model current = model;
+        Member member = current.members.remove(bugId);
+        if (member != null) {
+            current.bugs.get(member.cluster).remove(bugId);
+            current.resolved.get(member.cluster).remove(bugId);
+            changes++;
+        }
+    }
+
+    /**
+     * Re-fit the centroids with mini-batch k-means over all stored vectors, warm-started from the
+     * current centroids. The fit runs on a snapshot without holding the write lock; only the
+     * final reassignment of bugs changed since the snapshot is done under it.
+     */
+    @Scheduled(initialDelayString = "${ai.clusters.refit-interval-ms:300000}",
+               fixedDelayString = "${ai.clusters.refit-interval-ms:300000}")
+    public void refit() {
+        synchronized (refitLock) {
+            List<Member> snapshot;
+            float[][] start;
+            synchronized (this) {
+                if (changes == 0) {
+                    return;
+                }
+                changes = 0;
+                snapshot = new ArrayList<>(model.members.values());
+                start = model.centroids;
+            }
+            if (snapshot.isEmpty()) {
+                return;
+            }
+            long began = System.nanoTime();
+            float[][] vectors = new float[snapshot.size()][];
+            for (int i = 0; i < vectors.length; i++) {
+                vectors[i] = snapshot.get(i).vector.dequantize();
+            }
+            float[][] centroids = fit(vectors, start);
+            Map<Member, Integer> assigned = new IdentityHashMap<>();
+            for (int i = 0; i < vectors.length; i++) {
+                assigned.put(snapshot.get(i), nearest(centroids, vectors[i]));
+            }
+            int clusters;
+            synchronized (this) {
+                clusters = publish(centroids, assigned);
+            }
+            logger.info("Bug clusters re-fitted: {} clusters over {} bugs in {} ms",
+                clusters, vectors.length, (System.nanoTime() - began) / 1_000_000);
+        }
+    }
+
+    /**
+     * All clusters, largest first, with at most {@code memberLimit} bug ids each
+     */
+    public List<Cluster> getClusters(int memberLimit) {
+        Model current = model;
+        List<Cluster> clusters = new ArrayList<>();
+        for (int c = 0; c < current.centroids.length; c++) {
+            if (!current.bugs.get(c).isEmpty()) {
+                clusters.add(describe(current, c, memberLimit));
+            }
+        }
+        clusters.sort(Comparator.comparingInt(Cluster::getSize).reversed());
+        return clusters;
+    }
+
+    /**
+     * The cluster a bug is currently in, or null if it is not indexed
+     */
+    public Cluster getClusterOf(long bugId, int memberLimit) {
+        Model current = model;
+        Member member = current.members.get(bugId);
+        if (member == null || member.cluster >= current.centroids.length) {
+            return null;
+        }
+        return describe(current, member.cluster, memberLimit);
+    }
+
+    /**
+     * Solution hints from the resolved bugs in the text's nearest cluster, most similar first.
+     * Costs k centroid scores plus one score per resolved bug in that cluster.
+     */
+    public List<String> suggestSolutions(String text, int limit) {
+        return suggestSolutions(text, null, limit);
+    }
+
+    /**
+     * As {@link #suggestSolutions(String, int)}, leaving out the bug the text belongs to
+     */
+    public List<String> suggestSolutions(String text, Long excludeBugId, int limit) {
+        Model current = model;
+        float[] query = embedder.embed(text);
+        int cluster = nearest(current.centroids, query);
+        if (cluster < 0) {
+            return Collections.emptyList();
+        }
+        double querySum = QuantizedVector.sum(query);
+        List<ScoredId> candidates = new ArrayList<>();
+        for (Long bugId : current.resolved.get(cluster)) {
+            Member member = current.members.get(bugId);
+            if (member != null && !bugId.equals(excludeBugId)) {
+                candidates.add(new ScoredId(bugId, member.vector.dot(query, querySum)));
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(ScoredId::getScore).reversed());
+        List<String> suggestions = new ArrayList<>();
+        for (ScoredId candidate : candidates.subList(0, Math.min(limit, candidates.size()))) {
+            Member member = current.members.get(candidate.getId());
+            if (member != null) {
+                suggestions.add("A similar bug was resolved: #" + member.bugId + " \"" + member.title + "\""
+                    + (member.assignee != null && !member.assignee.isBlank() ? " (" + member.assignee + ")" : "")
+                    + ". Check how it was fixed.");
+            }
+        }
+        return suggestions;
+    }
+
+    private Cluster describe(Model current, int cluster, int memberLimit) {
+        Set<Long> bugIds = current.bugs.get(cluster);
+        Member representative = current.members.get(current.representatives[cluster]);
+        return new Cluster(cluster, bugIds.size(), current.resolved.get(cluster).size(),
+            representative != null ? representative.bugId : null,
+            representative != null ? representative.title : null,
+            bugIds.stream().sorted().limit(memberLimit).collect(Collectors.toList()));
+    }
+
+    /**
+     * Swap in a fitted model: bugs unchanged since the snapshot keep their precomputed cluster,
+     * the rest are assigned now. Empty clusters are dropped and the bug closest to each
+     * centroid becomes its representative.
+     */
+    private int publish(float[][] fitted, Map<Member, Integer> assigned) {
+        Member[] current = model.members.values().toArray(new Member[0]);
+        int[] assignment = new int[current.length];
+        int[] sizes = new int[fitted.length];
+        for (int i = 0; i < current.length; i++) {
+            Integer cluster = assigned.get(current[i]);
+            assignment[i] = cluster != null ? cluster : nearest(fitted, current[i].vector.dequantize());
+            sizes[assignment[i]]++;
+        }
+        int[] renumbered = new int[fitted.length];
+        List<float[]> centroids = new ArrayList<>();
+        for (int c = 0; c < fitted.length; c++) {
+            renumbered[c] = sizes[c] > 0 ? centroids.size() : -1;
+            if (sizes[c] > 0) {
+                centroids.add(fitted[c]);
+            }
+        }
+        List<Set<Long>> bugs = new ArrayList<>();
+        List<Set<Long>> resolved = new ArrayList<>();
+        long[] representatives = new long[centroids.size()];
+        Map<Long, Member> members = new ConcurrentHashMap<>();
+        double[] closest = new double[centroids.size()];
+        Arrays.fill(closest, Double.NEGATIVE_INFINITY);
+        for (int c = 0; c < centroids.size(); c++) {
+            bugs.add(ConcurrentHashMap.newKeySet());
+            resolved.add(ConcurrentHashMap.newKeySet());
+        }
+        for (int i = 0; i < current.length; i++) {
+            int cluster = renumbered[assignment[i]];
+            Member member = current[i].inCluster(cluster);
+            members.put(member.bugId, member);
+            bugs.get(cluster).add(member.bugId);
+            if (member.resolved) {
+                resolved.get(cluster).add(member.bugId);
+            }
+            float[] centroid = centroids.get(cluster);
+            double score = member.vector.dot(centroid, QuantizedVector.sum(centroid));
+            if (score > closest[cluster]) {
+                closest[cluster] = score;
+                representatives[cluster] = member.bugId;
+            }
+        }
+        model = new Model(centroids.toArray(new float[0][]), representatives, bugs, resolved, members);
+        return centroids.size();
+    }
+
+    private float[][] fit(float[][] vectors, float[][] start) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int clusters = Math.min(k, vectors.length);
+        float[][] centroids = seed(vectors, start, clusters, random);
+        long[] counts = new long[clusters];
+        int batch = Math.min(batchSize, vectors.length);
+        int[] picked = new int[batch];
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            // Assign the whole batch against the same centroids before moving any (Sculley's mini-batch k-means)
+            for (int b = 0; b < batch; b++) {
+                picked[b] = random.nextInt(vectors.length);
+            }
+            int[] nearest = new int[batch];
+            for (int b = 0; b < batch; b++) {
+                nearest[b] = nearest(centroids, vectors[picked[b]]);
+            }
+            for (int b = 0; b < batch; b++) {
+                int c = nearest[b];
+                counts[c]++;
+                centroids[c] = step(centroids[c], vectors[picked[b]], 1.0 / counts[c]);
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * Current centroids where there are enough of them, topped up by k-means++ sampling
+     */
+    private static float[][] seed(float[][] vectors, float[][] start, int clusters, Random random) {
+        float[][] centroids = new float[clusters][];
+        int seeded = Math.min(start.length, clusters);
+        for (int c = 0; c < seeded; c++) {
+            centroids[c] = start[c].clone();
+        }
+        if (seeded == 0) {
+            centroids[seeded++] = vectors[random.nextInt(vectors.length)].clone();
+        }
+        double[] distance = new double[vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            distance[i] = Double.MAX_VALUE;
+            for (int c = 0; c < seeded; c++) {
+                distance[i] = Math.min(distance[i], 1.0 - VectorIndex.dot(vectors[i], centroids[c]));
+            }
+        }
+        for (; seeded < clusters; seeded++) {
+            double total = 0;
+            for (double d : distance) {
+                total += Math.max(0, d);
+            }
+            int chosen = random.nextInt(vectors.length);
+            double target = random.nextDouble() * total;
+            for (int i = 0; i < vectors.length && total > 0; i++) {
+                target -= Math.max(0, distance[i]);
+                if (target <= 0) {
+                    chosen = i;
+                    break;
+                }
+            }
+            centroids[seeded] = vectors[chosen].clone();
+            for (int i = 0; i < vectors.length; i++) {
+                distance[i] = Math.min(distance[i], 1.0 - VectorIndex.dot(vectors[i], centroids[seeded]));
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * Index of the most similar centroid, or -1 when there are none
+     */
+    private static int nearest(float[][] centroids, float[] vector) {
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < centroids.length; c++) {
+            double score = VectorIndex.dot(vector, centroids[c]);
+            if (score > bestScore) {
+                bestScore = score;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private static float[] step(float[] centroid, float[] vector, double rate) {
+        float[] moved = new float[centroid.length];
+        for (int i = 0; i < moved.length; i++) {
+            moved[i] = (float) (centroid[i] + rate * (vector[i] - centroid[i]));
+        }
+        double norm = Math.sqrt(VectorIndex.dot(moved, moved));
+        if (norm > 0) {
+            for (int i = 0; i < moved.length; i++) {
+                moved[i] /= norm;
+            }
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,48 @@
+package com.bugtracker.backend.search;
+
+import java.time.LocalDate;
+
+/**
+ * Optional pre-filters for similar-bug search; null fields do not constrain.
+ * String values match case-insensitively, dates are inclusive on createdAt.
+ */
+public class BugFilter {
+
+    private String status;
+    private String priority;
+    private String severity;
+    private String assignee;
+    private LocalDate createdFrom;
+    private LocalDate createdTo;
+
+    public BugFilter() {
+    }
+
+    public BugFilter(String status, String priority, String severity, String assignee,
+                     LocalDate createdFrom, LocalDate createdTo) {
+        this.status = status;
+        this.priority = priority;
+        this.severity = severity;
+        this.assignee = assignee;
+        this.createdFrom = createdFrom;
+        this.createdTo = createdTo;
+    }
+
+    public boolean isEmpty() {
+        return status == null && priority == null && severity == null && assignee == null
+            && createdFrom == null && createdTo == null;
+    }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+    public String getSeverity() { return severity; }
+    public void setSeverity(String severity) { this.severity = severity; }
+    public String getAssignee() { return assignee; }
+    public void setAssignee(String assignee) { this.assignee = assignee; }
+    public LocalDate getCreatedFrom() { return createdFrom; }
+    public void setCreatedFrom(LocalDate createdFrom) { this.createdFrom = createdFrom; }
+    public LocalDate getCreatedTo() { return createdTo; }
+    public void setCreatedTo(LocalDate createdTo) { this.createdTo = createdTo; }
+}
@@ -0,0 +1,178 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.event.BugIndexSubscriber;
+import com.bugtracker.backend.model.Bug;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Compressed id bitmaps per status, priority, severity, assignee and creation day,
+ * maintained alongside the similarity indexes. A {@link BugFilter} is resolved by
+ * intersecting bitmaps so vector and lexical scoring only visit eligible bugs.
+ */
+@Component
+public class BugFilterIndex implements BugIndexSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(BugFilterIndex.class);
+
+    private final Map<String, IdBitmap> byStatus = new HashMap<>();
+    private final Map<String, IdBitmap> byPriority = new HashMap<>();
+    private final Map<String, IdBitmap> bySeverity = new HashMap<>();
+    private final Map<String, IdBitmap> byAssignee = new HashMap<>();
+    private final TreeMap<Long, IdBitmap> byCreatedDay = new TreeMap<>();
+    // Last indexed attributes per bug, so re-indexing can clear old memberships
+    private final Map<Long, Facets> facets = new HashMap<>();
+
+    private static final class Facets {
+        final String status;
+        final String priority;
+        final String severity;
+        final String assignee;
+        final Long createdDay;
+
+        Facets(Bug bug) {
+            this.status = key(bug.getStatus());
+            this.priority = key(bug.getPriority());
+            this.severity = key(bug.getSeverity());
+            this.assignee = key(bug.getAssignee());
+            this.createdDay = bug.getCreatedAt() != null ? bug.getCreatedAt().toLocalDate().toEpochDay() : null;
+        }
+    }
+
+    @Override
+    public void rebuild(List<Bug> bugs) {
+        synchronized (this) {
+            byStatus.clear();
+            byPriority.clear();
+            bySeverity.clear();
+            byAssignee.clear();
+            byCreatedDay.clear();
+            facets.clear();
+            for (Bug bug : bugs) {
+                index(bug);
+            }
+        }
+        logger.info("Filter bitmaps built for {} bugs", bugs.size());
+    }
+
+    @Override
+    public synchronized void index(Bug bug) {
+        if (bug.getId() == null) {
+            return;
+        }
+        long id = bug.getId();
+        remove(id);
+        Facets f = new Facets(bug);
+        facets.put(id, f);
+        add(byStatus, f.status, id);
+        add(byPriority, f.priority, id);
+        add(bySeverity, f.severity, id);
+        add(byAssignee, f.assignee, id);
+        if (f.createdDay != null) {
+            byCreatedDay.computeIfAbsent(f.createdDay, k -> new IdBitmap()).add(id);
+        }
+    }
+
+    @Override
+    public synchronized void remove(long id) {
+        Facets f = facets.remove(id);
+        if (f == null) {
+            return;
+        }
+        clear(byStatus, f.status, id);
+        clear(byPriority, f.priority, id);
+        clear(bySeverity, f.severity, id);
+        clear(byAssignee, f.assignee, id);
+        if (f.createdDay != null) {
+            IdBitmap day = byCreatedDay.get(f.createdDay);
+            if (day != null) {
+                day.remove(id);
+                if (day.isEmpty()) {
+                    byCreatedDay.remove(f.createdDay);
+                }
+            }
+        }
+    }
+
+    /**
+     * Eligible ids for the filter, or null when the filter is empty (every bug is eligible).
+     * The returned bitmap is a private copy and safe to read without locking.
+     */
+    public synchronized IdBitmap resolve(BugFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+        List<IdBitmap> clauses = new ArrayList<>();
+        if (!addClause(clauses, byStatus, filter.getStatus())
+            || !addClause(clauses, byPriority, filter.getPriority())
+            || !addClause(clauses, bySeverity, filter.getSeverity())
+            || !addClause(clauses, byAssignee, filter.getAssignee())) {
+            return new IdBitmap();
+        }
+        if (filter.getCreatedFrom() != null || filter.getCreatedTo() != null) {
+            long from = filter.getCreatedFrom() != null ? filter.getCreatedFrom().toEpochDay() : Long.MIN_VALUE;
+            long to = filter.getCreatedTo() != null ? filter.getCreatedTo().toEpochDay() : Long.MAX_VALUE;
+            if (from > to) {
+                return new IdBitmap();
+            }
+            IdBitmap range = new IdBitmap();
+            byCreatedDay.subMap(from, true, to, true).values().forEach(range::orInPlace);
+            clauses.add(range);
+        }
+
+        if (clauses.isEmpty()) {
+            return null;
+        }
+
+        // Intersect the most selective bitmaps first
+        clauses.sort(Comparator.comparingInt(IdBitmap::cardinality));
+        IdBitmap result = clauses.get(0).copy();
+        for (int i = 1; i < clauses.size() && !result.isEmpty(); i++) {
+            result = result.and(clauses.get(i));
+        }
+        return result;
+    }
+
+    // False when a value is requested but no bug has it, i.e. the filter matches nothing
+    private static boolean addClause(List<IdBitmap> clauses, Map<String, IdBitmap> index, String value) {
+        String key = key(value);
+        if (key == null) {
+            return true;
+        }
+        IdBitmap bitmap = index.get(key);
+        if (bitmap == null) {
+            return false;
+        }
+        clauses.add(bitmap);
+        return true;
+    }
+
+    private static void add(Map<String, IdBitmap> index, String key, long id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new IdBitmap()).add(id);
+        }
+    }
+
+    private static void clear(Map<String, IdBitmap> index, String key, long id) {
+        if (key == null) {
+            return;
+        }
+        IdBitmap bitmap = index.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static String key(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
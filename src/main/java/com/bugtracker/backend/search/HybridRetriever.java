@@ -0,0 +1,113 @@
+package com.bugtracker.backend.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hybrid similar-bug retrieval: BM25 lexical candidates and vector nearest neighbours
+ * are merged with reciprocal-rank fusion. Both legs drop candidates below a score floor
+ * before fusion, so weak matches are never loaded from the database. Results are ordered
+ * by the fused rank and carry the cosine similarity of the vector leg as their score.
+ * The vector leg uses the local embeddings, or the remote model's stored embeddings when
+ * the caller supplies a remote query vector.
+ */
+@Component
+public class HybridRetriever {
+
+    // Standard RRF damping constant; keeps one strong ranking from dominating the fusion
+    private static final int RRF_K = 60;
+    private static final int MIN_CANDIDATES = 50;
+    // Vector-only candidates below this cosine are noise rather than neighbours
+    private static final double MIN_VECTOR_SCORE = 0.05;
+    // Lexical candidates below this normalized BM25 score match only a sliver of the query
+    private static final double MIN_LEXICAL_SCORE = 0.1;
+
+    private final Bm25Index lexicalIndex;
+    private final LocalSimilarityIndex vectorIndex;
+    private final RemoteEmbeddingIndex remoteIndex;
+    private final BugFilterIndex filterIndex;
+
+    public HybridRetriever(Bm25Index lexicalIndex, LocalSimilarityIndex vectorIndex,
+                           RemoteEmbeddingIndex remoteIndex, BugFilterIndex filterIndex) {
+        this.lexicalIndex = lexicalIndex;
+        this.vectorIndex = vectorIndex;
+        this.remoteIndex = remoteIndex;
+        this.filterIndex = filterIndex;
+    }
+
+    public List<ScoredId> search(String text, int limit) {
+        return search(text, limit, null);
+    }
+
+    /**
+     * Search restricted by the filter; eligible ids are resolved from bitmaps before any scoring
+     */
+    public List<ScoredId> search(String text, int limit, BugFilter filter) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        IdBitmap eligible = filterIndex.resolve(filter);
+        if (eligible != null && eligible.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int candidates = Math.max(MIN_CANDIDATES, limit * 4);
+        float[] query = vectorIndex.embed(text);
+        return fuse(lexicalIndex.search(text, candidates, MIN_LEXICAL_SCORE, eligible),
+            vectorIndex.search(query, candidates, MIN_VECTOR_SCORE, eligible),
+            limit, id -> vectorIndex.similarity(query, id));
+    }
+
+    /**
+     * Hybrid search whose vector leg scores the remote model's stored embeddings against
+     * {@code remoteQuery}; bugs not yet embedded with that model are still found lexically
+     */
+    public List<ScoredId> search(String text, float[] remoteQuery, String modelVersion, int limit, BugFilter filter) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        IdBitmap eligible = filterIndex.resolve(filter);
+        if (eligible != null && eligible.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int candidates = Math.max(MIN_CANDIDATES, limit * 4);
+        return fuse(lexicalIndex.search(text, candidates, MIN_LEXICAL_SCORE, eligible),
+            remoteIndex.search(remoteQuery, modelVersion, candidates, MIN_VECTOR_SCORE, eligible),
+            limit, id -> remoteIndex.similarity(remoteQuery, modelVersion, id));
+    }
+
+    /**
+     * Local vector neighbours only, without the lexical leg, above a cosine threshold
+     */
+    public List<ScoredId> searchVectors(String text, int limit, double minScore, BugFilter filter) {
+        IdBitmap eligible = filterIndex.resolve(filter);
+        if (limit <= 0 || (eligible != null && eligible.isEmpty())) {
+            return Collections.emptyList();
+        }
+        return vectorIndex.search(vectorIndex.embed(text), limit, minScore, eligible);
+    }
+
+    private static List<ScoredId> fuse(List<ScoredId> lexical, List<ScoredId> vector, int limit,
+                                       ToDoubleFunction<Long> similarity) {
+        Map<Long, Double> fused = new HashMap<>();
+        addRanks(fused, lexical);
+        addRanks(fused, vector);
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(fused.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed());
+
+        List<ScoredId> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && result.size() < limit; i++) {
+            long id = ranked.get(i).getKey();
+            result.add(new ScoredId(id, similarity.applyAsDouble(id)));
+        }
+        return result;
+    }
+
+    private static void addRanks(Map<Long, Double> fused, List<ScoredId> ranking) {
+        for (int rank = 0; rank < ranking.size(); rank++) {
+            fused.merge(ranking.get(rank).getId(), 1.0 / (RRF_K + rank + 1), Double::sum);
+        }
+    }
+}
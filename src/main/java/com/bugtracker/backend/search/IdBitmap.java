@@ -0,0 +1,292 @@
+package com.bugtracker.backend.search;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Compressed bitmap of bug ids in the style of Roaring bitmaps: ids are split by their high bits
+ * into chunks of 65536, and each chunk is stored as a sorted array while sparse or as a plain
+ * bitmap once dense. Intersections work chunk by chunk and skip chunks missing on either side.
+ * Not thread-safe; callers synchronize writes and hand out copies or intersections to readers.
+ */
+public final class IdBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+
+    private final TreeMap<Long, Container> containers = new TreeMap<>();
+
+    public void add(long id) {
+        long key = id >>> 16;
+        Container container = containers.get(key);
+        if (container == null) {
+            container = new ArrayContainer();
+            containers.put(key, container);
+        }
+        Container updated = container.add((char) id);
+        if (updated != container) {
+            containers.put(key, updated);
+        }
+    }
+
+    public void remove(long id) {
+        long key = id >>> 16;
+        Container container = containers.get(key);
+        if (container == null) {
+            return;
+        }
+        Container updated = container.remove((char) id);
+        if (updated.cardinality() == 0) {
+            containers.remove(key);
+        } else if (updated != container) {
+            containers.put(key, updated);
+        }
+    }
+
+    public boolean contains(long id) {
+        Container container = containers.get(id >>> 16);
+        return container != null && container.contains((char) id);
+    }
+
+    public boolean isEmpty() {
+        return containers.isEmpty();
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (Container container : containers.values()) {
+            total += container.cardinality();
+        }
+        return total;
+    }
+
+    public IdBitmap copy() {
+        IdBitmap copy = new IdBitmap();
+        containers.forEach((key, container) -> copy.containers.put(key, container.copy()));
+        return copy;
+    }
+
+    /**
+     * New bitmap with the ids present in both
+     */
+    public IdBitmap and(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        IdBitmap small = containers.size() <= other.containers.size() ? this : other;
+        IdBitmap large = small == this ? other : this;
+        for (Map.Entry<Long, Container> entry : small.containers.entrySet()) {
+            Container match = large.containers.get(entry.getKey());
+            if (match != null) {
+                Container joined = entry.getValue().and(match);
+                if (joined.cardinality() > 0) {
+                    result.containers.put(entry.getKey(), joined);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add all ids of the other bitmap to this one
+     */
+    public void orInPlace(IdBitmap other) {
+        for (Map.Entry<Long, Container> entry : other.containers.entrySet()) {
+            Container mine = containers.get(entry.getKey());
+            containers.put(entry.getKey(), mine == null ? entry.getValue().copy() : mine.or(entry.getValue()));
+        }
+    }
+
+    public void forEach(LongConsumer action) {
+        for (Map.Entry<Long, Container> entry : containers.entrySet()) {
+            long high = entry.getKey() << 16;
+            entry.getValue().forEach(low -> action.accept(high | low));
+        }
+    }
+
+    private interface Container {
+        Container add(char value);
+        Container remove(char value);
+        boolean contains(char value);
+        int cardinality();
+        Container and(Container other);
+        Container or(Container other);
+        Container copy();
+        void forEach(LongConsumer action);
+    }
+
+    private static final class ArrayContainer implements Container {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        public Container add(char value) {
+            int idx = Arrays.binarySearch(values, 0, size, value);
+            if (idx >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            int insert = -idx - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+            }
+            System.arraycopy(values, insert, values, insert + 1, size - insert);
+            values[insert] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int idx = Arrays.binarySearch(values, 0, size, value);
+            if (idx >= 0) {
+                System.arraycopy(values, idx + 1, values, idx, size - idx - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public Container and(Container other) {
+            ArrayContainer result = new ArrayContainer();
+            result.values = new char[Math.max(1, size)];
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    result.values[result.size++] = values[i];
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Container or(Container other) {
+            Container result = other.copy();
+            for (int i = 0; i < size; i++) {
+                result = result.add(values[i]);
+            }
+            return result;
+        }
+
+        @Override
+        public Container copy() {
+            ArrayContainer copy = new ArrayContainer();
+            copy.values = Arrays.copyOf(values, Math.max(1, size));
+            copy.size = size;
+            return copy;
+        }
+
+        @Override
+        public void forEach(LongConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(values[i]);
+            }
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final long[] words = new long[1024];
+        private int cardinality;
+
+        @Override
+        public Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (after != before) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (after != before) {
+                words[value >>> 6] = after;
+                cardinality--;
+            }
+            if (cardinality <= ARRAY_MAX / 2) {
+                return toArray();
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof BitmapContainer) {
+                BitmapContainer result = new BitmapContainer();
+                long[] otherWords = ((BitmapContainer) other).words;
+                for (int i = 0; i < words.length; i++) {
+                    result.words[i] = words[i] & otherWords[i];
+                    result.cardinality += Long.bitCount(result.words[i]);
+                }
+                return result.cardinality <= ARRAY_MAX ? result.toArray() : result;
+            }
+            // Array side is smaller; let it drive the intersection
+            return other.and(this);
+        }
+
+        @Override
+        public Container or(Container other) {
+            BitmapContainer result = (BitmapContainer) copy();
+            other.forEach(value -> result.add((char) value));
+            return result;
+        }
+
+        @Override
+        public Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        public void forEach(LongConsumer action) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(((long) i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[Math.max(1, cardinality)];
+            forEach(value -> array.values[array.size++] = (char) value);
+            return array;
+        }
+    }
+}
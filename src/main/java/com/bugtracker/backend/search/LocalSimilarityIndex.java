@@ -0,0 +1,308 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.ai.HashingEmbedder;
+import com.bugtracker.backend.event.BugIndexSubscriber;
+import com.bugtracker.backend.model.Bug;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Network-free similar-bug search over {@link HashingEmbedder} vectors.
+ * Document frequencies and vectors are maintained incrementally as bugs change.
+ * With {@code index.snapshot.dir} set, every write is also appended to a delta log and the
+ * index is checkpointed periodically, so a restart maps the last checkpoint and replays the
+ * log instead of re-embedding every bug; otherwise it is rebuilt from the database.
+ */
+@Component
+// Applied first, so subscribers that embed bugs see document frequencies that include them
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LocalSimilarityIndex implements BugIndexSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalSimilarityIndex.class);
+
+    private final HashingEmbedder embedder;
+    private final VectorIndex vectors;
+    // Buckets each indexed bug contributed to document frequencies, so removal needs no old text
+    private final Map<Long, int[]> contributions = new ConcurrentHashMap<>();
+    private final VectorSnapshotStore store;
+    // Latest modification time (epoch millis) of any bug applied, persisted with the snapshot
+    private long watermark;
+    // Writes not yet covered by a checkpoint
+    private volatile boolean dirty;
+    // Bumped whenever the on-disk state is discarded, so an in-flight checkpoint knows it is stale
+    private long storeEpoch;
+
+    public LocalSimilarityIndex(HashingEmbedder embedder,
+                                @Value("${index.snapshot.dir:}") String snapshotDir) throws IOException {
+        this.embedder = embedder;
+        this.store = snapshotDir.isBlank() ? null : new VectorSnapshotStore(Paths.get(snapshotDir), embedder.getDimensions());
+        // Heap rows keep only int8 codes; their floats are read back from the delta log
+        this.vectors = new VectorIndex(embedder.getDimensions(), store);
+    }
+
+    public static String textOf(Bug bug) {
+        return (bug.getTitle() != null ? bug.getTitle() + " " : "")
+            + (bug.getDescription() != null ? bug.getDescription() : "");
+    }
+
+    /**
+     * Map the last checkpoint and replay the delta log. Fails (and leaves the caller to rebuild)
+     * when there is no usable checkpoint, when the database has a change newer than the restored
+     * watermark, or when the bug counts differ (a missed delete moves no watermark).
+     */
+    @Override
+    public synchronized boolean restore(long expectedCount, LocalDateTime expectedWatermark) {
+        if (store == null) {
+            return false;
+        }
+        try {
+            VectorSnapshotStore.Loaded loaded = store.load();
+            if (loaded == null) {
+                return false;
+            }
+            vectors.attach(loaded.vectors);
+            contributions.clear();
+            contributions.putAll(loaded.contributions);
+            embedder.restoreFrequencies(loaded.documentFrequencies, loaded.documentCount);
+            watermark = loaded.watermark;
+            long replayed = store.replay(loaded.generation, new VectorSnapshotStore.DeltaHandler() {
+                @Override
+                public void put(long id, long modifiedAt, int[] buckets, float[] vector, long locator) {
+                    apply(id, modifiedAt, buckets, vector, locator);
+                }
+
+                @Override
+                public void remove(long id) {
+                    unapply(id);
+                }
+            });
+            if (watermark < toMillis(expectedWatermark)) {
+                logger.warn("Similarity snapshot is older than the latest bug change; rebuilding");
+                return false;
+            }
+            if (vectors.size() != expectedCount) {
+                logger.warn("Similarity snapshot has {} bugs, database has {}; rebuilding", vectors.size(), expectedCount);
+                return false;
+            }
+            dirty = replayed > 0;
+            logger.info("Local similarity index restored with {} bugs ({} logged changes replayed)", vectors.size(), replayed);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not restore similarity snapshot, rebuilding: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void rebuild(List<Bug> bugs) {
+        synchronized (this) {
+            vectors.clear();
+            contributions.clear();
+            embedder.restoreFrequencies(new int[embedder.getDimensions()], 0);
+            watermark = 0;
+            // Document frequencies first, so every vector sees the same IDF
+            for (Bug bug : bugs) {
+                int[] buckets = embedder.distinctBuckets(textOf(bug));
+                contributions.put(bug.getId(), buckets);
+                embedder.addDocument(buckets);
+                watermark = Math.max(watermark, modifiedAt(bug));
+            }
+            // The old checkpoint and log no longer describe this state. The fresh log holds the
+            // floats until the next checkpoint, since the heap only keeps their int8 codes.
+            discardSnapshot();
+            for (Bug bug : bugs) {
+                float[] vector = embedder.embed(textOf(bug));
+                long locator = logPut(bug.getId(), modifiedAt(bug), contributions.get(bug.getId()), vector);
+                vectors.put(bug.getId(), vector, locator);
+            }
+        }
+        logger.info("Local similarity index built with {} bugs", bugs.size());
+    }
+
+    /**
+     * Add or re-index a bug
+     */
+    @Override
+    public synchronized void index(Bug bug) {
+        if (bug.getId() == null) {
+            return;
+        }
+        String text = textOf(bug);
+        int[] buckets = embedder.distinctBuckets(text);
+        int[] previous = contributions.put(bug.getId(), buckets);
+        if (previous != null) {
+            embedder.removeDocument(previous);
+        }
+        embedder.addDocument(buckets);
+        float[] vector = embedder.embed(text);
+        long modifiedAt = modifiedAt(bug);
+        watermark = Math.max(watermark, modifiedAt);
+        vectors.put(bug.getId(), vector, logPut(bug.getId(), modifiedAt, buckets, vector));
+    }
+
+    @Override
+    public synchronized void remove(long bugId) {
+        unapply(bugId);
+        if (store != null) {
+            try {
+                store.appendRemove(bugId);
+                dirty = true;
+            } catch (IOException e) {
+                logger.warn("Similarity delta log write failed: {}", e.getMessage());
+                discardSnapshot();
+            }
+        }
+    }
+
+    // Replayed writes carry the vector as logged, so the restored index matches the one that was running
+    private void apply(long id, long modifiedAt, int[] buckets, float[] vector, long locator) {
+        int[] previous = contributions.put(id, buckets);
+        if (previous != null) {
+            embedder.removeDocument(previous);
+        }
+        embedder.addDocument(buckets);
+        vectors.put(id, vector, locator);
+        watermark = Math.max(watermark, modifiedAt);
+    }
+
+    // Log a put for replay and as the readable copy of its floats; -1 when there is no log
+    private long logPut(long id, long modifiedAt, int[] buckets, float[] vector) {
+        if (store == null) {
+            return -1;
+        }
+        try {
+            long locator = store.appendPut(id, modifiedAt, buckets, vector);
+            dirty = true;
+            return locator;
+        } catch (IOException e) {
+            logger.warn("Similarity delta log write failed: {}", e.getMessage());
+            discardSnapshot();
+            return -1;
+        }
+    }
+
+    private void unapply(long id) {
+        int[] previous = contributions.remove(id);
+        if (previous != null) {
+            embedder.removeDocument(previous);
+        }
+        vectors.remove(id);
+    }
+
+    /**
+     * Write a new checkpoint if anything changed since the last one. Only capturing the view
+     * and rotating the log happen under the index lock; the file is written without blocking
+     * updates, then mapped in place of the heap vectors it covers.
+     */
+    @Scheduled(fixedDelayString = "${index.snapshot.checkpoint-interval-ms:300000}",
+               initialDelayString = "${index.snapshot.checkpoint-interval-ms:300000}")
+    public void checkpoint() {
+        if (store == null || !dirty) {
+            return;
+        }
+        long generation;
+        long checkpointWatermark;
+        long epoch;
+        VectorIndex.View view;
+        int[] frequencies;
+        int documentCount;
+        Map<Long, int[]> contributionsCopy;
+        synchronized (this) {
+            try {
+                generation = store.rotate();
+            } catch (IOException e) {
+                logger.warn("Similarity delta log rotation failed: {}", e.getMessage());
+                return;
+            }
+            epoch = storeEpoch;
+            checkpointWatermark = watermark;
+            view = vectors.view();
+            frequencies = embedder.documentFrequencies();
+            documentCount = embedder.getDocumentCount();
+            contributionsCopy = new HashMap<>(contributions);
+            dirty = false;
+        }
+        try {
+            MappedVectors written = store.writeSnapshot(generation, checkpointWatermark, view, frequencies, documentCount, contributionsCopy);
+            synchronized (this) {
+                if (epoch != storeEpoch) {
+                    // A log write failed meanwhile; this checkpoint would hide the lost change
+                    discardSnapshot();
+                } else {
+                    vectors.rebase(written);
+                }
+            }
+            logger.info("Similarity index checkpoint written with {} bugs", view.ids().length);
+        } catch (IOException e) {
+            dirty = true;
+            logger.warn("Similarity index checkpoint failed: {}", e.getMessage());
+        }
+    }
+
+    private static long modifiedAt(Bug bug) {
+        return toMillis(bug.getUpdatedAt() != null ? bug.getUpdatedAt() : bug.getCreatedAt());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+
+    private void discardSnapshot() {
+        if (store == null) {
+            return;
+        }
+        storeEpoch++;
+        dirty = true;
+        try {
+            store.invalidate();
+        } catch (IOException e) {
+            logger.warn("Could not discard similarity snapshot: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    public List<ScoredId> search(String text, int limit, double minScore) {
+        return vectors.search(embedder.embed(text), limit, minScore);
+    }
+
+    public List<ScoredId> search(float[] query, int limit, double minScore, IdBitmap eligible) {
+        return vectors.search(query, limit, minScore, eligible);
+    }
+
+    public float[] embed(String text) {
+        return embedder.embed(text);
+    }
+
+    /**
+     * Cosine similarity between a query vector and an indexed bug, 0 if the bug is not indexed
+     */
+    public double similarity(float[] query, long bugId) {
+        float[] vector = vectors.get(bugId);
+        return vector != null ? VectorIndex.dot(query, vector) : 0.0;
+    }
+
+    public int size() {
+        return vectors.size();
+    }
+}
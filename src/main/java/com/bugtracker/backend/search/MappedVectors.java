@@ -0,0 +1,86 @@
+package com.bugtracker.backend.search;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Read-only vectors backed by memory-mapped snapshot segments. Only the sorted id table
+ * lives on the heap; pages are faulted in by the OS on first access. Each row exists as
+ * int8 codes (scanned for candidates) and as floats (read only to re-rank the best few).
+ * Absolute buffer reads keep it safe for concurrent readers.
+ */
+final class MappedVectors {
+
+    private final int dimensions;
+    private final long[] ids;
+    private final FloatBuffer[] segments;
+    private final int rowsPerSegment;
+    private final ByteBuffer[] codeSegments;
+    private final int codeRowsPerSegment;
+
+    MappedVectors(int dimensions, long[] ids, FloatBuffer[] segments, int rowsPerSegment,
+                  ByteBuffer[] codeSegments, int codeRowsPerSegment) {
+        this.dimensions = dimensions;
+        this.ids = ids;
+        this.segments = segments;
+        this.rowsPerSegment = rowsPerSegment;
+        this.codeSegments = codeSegments;
+        this.codeRowsPerSegment = codeRowsPerSegment;
+    }
+
+    /**
+     * Bytes per quantized row: scale, offset, then one code per dimension
+     */
+    static int codeRowBytes(int dimensions) {
+        return 8 + dimensions;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    long idAt(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Row of the id, or -1 when it is not in the snapshot
+     */
+    int rowOf(long id) {
+        int row = Arrays.binarySearch(ids, id);
+        return row >= 0 ? row : -1;
+    }
+
+    double dot(int row, float[] query) {
+        FloatBuffer segment = segments[row / rowsPerSegment];
+        int offset = (row % rowsPerSegment) * dimensions;
+        double sum = 0.0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += query[i] * segment.get(offset + i);
+        }
+        return sum;
+    }
+
+    /**
+     * Approximate dot product from the int8 codes, see {@link QuantizedVector#dot}
+     */
+    double quantizedDot(int row, float[] query, double querySum) {
+        ByteBuffer segment = codeSegments[row / codeRowsPerSegment];
+        int base = (row % codeRowsPerSegment) * codeRowBytes(dimensions);
+        float scale = segment.getFloat(base);
+        float offset = segment.getFloat(base + 4);
+        int codes = base + 8;
+        float sum = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            sum += segment.get(codes + i) * query[i];
+        }
+        return offset * querySum + scale * (double) sum;
+    }
+
+    void read(int row, float[] into) {
+        FloatBuffer segment = segments[row / rowsPerSegment];
+        int offset = (row % rowsPerSegment) * dimensions;
+        segment.get(offset, into, 0, dimensions);
+    }
+}
@@ -0,0 +1,223 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.event.BugIndexSubscriber;
+import com.bugtracker.backend.model.Bug;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Near-duplicate detection with MinHash signatures over character shingles and banded LSH.
+ * Each band of the signature is hashed into a bucket; bugs sharing any bucket are candidates,
+ * so lookup cost depends on bucket sizes, not on corpus size. Candidates are then filtered
+ * by the Jaccard similarity estimated from the full signatures.
+ */
+@Component
+public class MinHashIndex implements BugIndexSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinHashIndex.class);
+    private static final int SHINGLE_SIZE = 5;
+    // Fixed seed: signatures are persisted per bug and must stay comparable across restarts
+    private static final long HASH_SEED = 0x5DEECE66DL;
+
+    private final int numHashes;
+    private final int bands;
+    private final int rows;
+    private final double jaccardThreshold;
+    private final long[] multipliers;
+    private final long[] offsets;
+
+    private final Map<Long, int[]> signatures = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    public MinHashIndex(
+            @Value("${ai.duplicates.num-hashes:128}") int numHashes,
+            @Value("${ai.duplicates.bands:32}") int bands,
+            @Value("${ai.duplicates.jaccard-threshold:0.5}") double jaccardThreshold) {
+        if (bands <= 0 || numHashes % bands != 0) {
+            throw new IllegalArgumentException("ai.duplicates.num-hashes must be a multiple of ai.duplicates.bands");
+        }
+        this.numHashes = numHashes;
+        this.bands = bands;
+        this.rows = numHashes / bands;
+        this.jaccardThreshold = jaccardThreshold;
+        this.multipliers = new long[numHashes];
+        this.offsets = new long[numHashes];
+        SplittableRandom random = new SplittableRandom(HASH_SEED);
+        for (int i = 0; i < numHashes; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            offsets[i] = random.nextLong();
+        }
+    }
+
+    @Override
+    public synchronized void rebuild(List<Bug> bugs) {
+        signatures.clear();
+        buckets.clear();
+        for (Bug bug : bugs) {
+            index(bug);
+        }
+        logger.info("MinHash index built with {} bugs in {} buckets", signatures.size(), buckets.size());
+    }
+
+    /**
+     * MinHash signature over normalized character shingles of the text
+     */
+    public int[] signatureOf(String text) {
+        int[] signature = new int[numHashes];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        String normalized = normalize(text);
+        int shingles = Math.max(1, normalized.length() - SHINGLE_SIZE + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = hashShingle(normalized, start, Math.min(normalized.length(), start + SHINGLE_SIZE));
+            for (int i = 0; i < numHashes; i++) {
+                int h = (int) ((multipliers[i] * shingle + offsets[i]) >>> 33);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public synchronized void add(long id, int[] signature) {
+        int[] previous = signatures.put(id, signature);
+        if (previous != null) {
+            unbucket(id, previous);
+        }
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * Index a bug by its stored signature, computing one if it has none
+     */
+    @Override
+    public void index(Bug bug) {
+        if (bug.getId() == null) {
+            return;
+        }
+        int[] signature = fromBytes(bug.getMinhashSignature());
+        add(bug.getId(), signature != null ? signature : signatureOf(LocalSimilarityIndex.textOf(bug)));
+    }
+
+    @Override
+    public synchronized void remove(long id) {
+        int[] previous = signatures.remove(id);
+        if (previous != null) {
+            unbucket(id, previous);
+        }
+    }
+
+    /**
+     * Bugs whose estimated Jaccard similarity with the signature reaches the threshold, best first
+     */
+    public List<ScoredId> findDuplicates(int[] signature, Long excludeId, int limit) {
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            Set<Long> members = buckets.get(bandKey(signature, band));
+            if (members != null) {
+                candidates.addAll(members);
+            }
+        }
+        if (excludeId != null) {
+            candidates.remove(excludeId);
+        }
+
+        List<ScoredId> duplicates = new ArrayList<>();
+        for (Long id : candidates) {
+            int[] other = signatures.get(id);
+            if (other == null) {
+                continue;
+            }
+            double jaccard = estimateJaccard(signature, other);
+            if (jaccard >= jaccardThreshold) {
+                duplicates.add(new ScoredId(id, jaccard));
+            }
+        }
+        duplicates.sort(Comparator.comparingDouble(ScoredId::getScore).reversed());
+        return duplicates.size() > limit ? duplicates.subList(0, limit) : duplicates;
+    }
+
+    public static double estimateJaccard(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    /**
+     * Decode a persisted signature, or null if absent or produced with a different configuration
+     */
+    public int[] fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != numHashes * Integer.BYTES) {
+            return null;
+        }
+        int[] signature = new int[numHashes];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    private void unbucket(long id, int[] signature) {
+        for (int band = 0; band < bands; band++) {
+            long key = bandKey(signature, band);
+            buckets.computeIfPresent(key, (k, members) -> {
+                members.remove(id);
+                return members.isEmpty() ? null : members;
+            });
+        }
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long h = 0xcbf29ce484222325L ^ band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            h ^= signature[i];
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // Lowercase, keep letters and digits, collapse everything else to single spaces
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    private static long hashShingle(String text, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h ^ (h >>> 29);
+    }
+}
@@ -0,0 +1,238 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.event.BugIndexSubscriber;
+import com.bugtracker.backend.model.Bug;
+import com.bugtracker.backend.model.BugEmbedding;
+import com.bugtracker.backend.repository.BugEmbeddingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the remote-model embeddings stored in {@code bug_embeddings}, kept as the
+ * stored int8 codes, for the "remote" similar-bug backend. Rows are loaded at startup and
+ * updated when an embedding is written; only vectors of the query's model version are scored,
+ * so a model upgrade takes effect as the backfill re-embeds bugs. Searches over-fetch on the
+ * codes and re-rank the candidates with their full-precision vectors read from the table.
+ */
+@Component
+public class RemoteEmbeddingIndex implements BugIndexSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteEmbeddingIndex.class);
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final int RERANK_FACTOR = 4;
+    private static final int MIN_RERANK_CANDIDATES = 32;
+
+    private final BugEmbeddingRepository repository;
+    private volatile Map<Long, Stored> vectors = new ConcurrentHashMap<>();
+
+    // Guards the swap in rebuild(); while a load runs, updates are also recorded here
+    // (null value = removed) and replayed onto the loaded map before it is published
+    private final Object loadLock = new Object();
+    private Map<Long, Stored> changedDuringLoad;
+
+    private static final class Stored {
+        final String modelVersion;
+        final QuantizedVector codes;
+
+        Stored(String modelVersion, QuantizedVector codes) {
+            this.modelVersion = modelVersion;
+            this.codes = codes;
+        }
+    }
+
+    public RemoteEmbeddingIndex(BugEmbeddingRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Embeddings are written separately from the bug, see {@link #putAfterCommit}
+     */
+    @Override
+    public void index(Bug bug) {
+    }
+
+    @Override
+    public void remove(long bugId) {
+        apply(bugId, null);
+    }
+
+    @Override
+    public synchronized void rebuild(List<Bug> bugs) {
+        synchronized (loadLock) {
+            changedDuringLoad = new HashMap<>();
+        }
+        Map<Long, Stored> loaded = new ConcurrentHashMap<>();
+        Page<BugEmbedding> page = repository.findAll(PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by("bugId")));
+        while (true) {
+            for (BugEmbedding row : page) {
+                loaded.put(row.getBugId(), new Stored(row.getModelVersion(),
+                    new QuantizedVector(row.getCodes(), row.getScale(), row.getOffset())));
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = repository.findAll(page.nextPageable());
+        }
+        // Swapped whole, so searches never see a half-loaded index
+        synchronized (loadLock) {
+            for (Map.Entry<Long, Stored> change : changedDuringLoad.entrySet()) {
+                if (change.getValue() == null) {
+                    loaded.remove(change.getKey());
+                } else {
+                    loaded.put(change.getKey(), change.getValue());
+                }
+            }
+            changedDuringLoad = null;
+            vectors = loaded;
+        }
+        logger.info("Remote embedding index loaded with {} vectors", loaded.size());
+    }
+
+    /**
+     * Make a stored embedding searchable once the surrounding transaction commits
+     * (immediately when there is none), so rolled-back writes never show up
+     */
+    public void putAfterCommit(long bugId, String modelVersion, QuantizedVector codes) {
+        Stored stored = new Stored(modelVersion, codes);
+        afterCommit(() -> apply(bugId, stored));
+    }
+
+    /**
+     * Stop serving a stored embedding once the transaction that deleted it commits
+     */
+    public void removeAfterCommit(long bugId) {
+        afterCommit(() -> apply(bugId, null));
+    }
+
+    private void apply(long bugId, Stored stored) {
+        synchronized (loadLock) {
+            if (stored == null) {
+                vectors.remove(bugId);
+            } else {
+                vectors.put(bugId, stored);
+            }
+            if (changedDuringLoad != null) {
+                changedDuringLoad.put(bugId, stored);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Top-k by cosine among bugs embedded with the same model version, best first. Candidates are
+     * picked on the int8 codes and re-scored exactly; rows without a stored vector keep their
+     * approximate score. With an eligible bitmap only those ids are looked up; null means all ids.
+     */
+    public List<ScoredId> search(float[] query, String modelVersion, int k, double minScore, IdBitmap eligible) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        Map<Long, Stored> current = vectors;
+        double querySum = QuantizedVector.sum(query);
+        int candidates = Math.max(k * RERANK_FACTOR, MIN_RERANK_CANDIDATES);
+        // Candidate scan on int8 codes; the threshold is only applied to final scores
+        PriorityQueue<ScoredId> approximate = new PriorityQueue<>(candidates + 1, Comparator.comparingDouble(ScoredId::getScore));
+        if (eligible == null) {
+            for (Map.Entry<Long, Stored> entry : current.entrySet()) {
+                offer(approximate, candidates, entry.getKey(), entry.getValue(), query, querySum, modelVersion);
+            }
+        } else {
+            eligible.forEach(id -> offer(approximate, candidates, id, current.get(id), query, querySum, modelVersion));
+        }
+        if (approximate.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, float[]> exact = new HashMap<>();
+        List<Long> ids = new ArrayList<>(approximate.size());
+        approximate.forEach(candidate -> ids.add(candidate.getId()));
+        for (BugEmbedding row : repository.findAllById(ids)) {
+            if (row.getVector() != null && Objects.equals(row.getModelVersion(), modelVersion)
+                && row.getVector().length == query.length * Float.BYTES) {
+                exact.put(row.getBugId(), fromBytes(row.getVector()));
+            }
+        }
+        PriorityQueue<ScoredId> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble(ScoredId::getScore));
+        for (ScoredId candidate : approximate) {
+            float[] vector = exact.get(candidate.getId());
+            double score = vector != null ? VectorIndex.dot(query, vector) : candidate.getScore();
+            if (score >= minScore) {
+                keep(best, k, new ScoredId(candidate.getId(), score));
+            }
+        }
+        List<ScoredId> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(ScoredId::getScore).reversed());
+        return result;
+    }
+
+    /**
+     * Approximate cosine between the query and a bug's stored embedding, 0 if it has none for this model
+     */
+    public double similarity(float[] query, String modelVersion, long bugId) {
+        Stored stored = vectors.get(bugId);
+        return stored != null && matches(stored, query, modelVersion)
+            ? stored.codes.dot(query, QuantizedVector.sum(query)) : 0.0;
+    }
+
+    public int size() {
+        return vectors.size();
+    }
+
+    private static void offer(PriorityQueue<ScoredId> best, int k, long id, Stored stored, float[] query,
+                              double querySum, String modelVersion) {
+        if (stored != null && matches(stored, query, modelVersion)) {
+            keep(best, k, new ScoredId(id, stored.codes.dot(query, querySum)));
+        }
+    }
+
+    private static void keep(PriorityQueue<ScoredId> best, int k, ScoredId scored) {
+        if (best.size() < k) {
+            best.add(scored);
+        } else if (scored.getScore() > best.peek().getScore()) {
+            best.poll();
+            best.add(scored);
+        }
+    }
+
+    private static boolean matches(Stored stored, float[] query, String modelVersion) {
+        return stored.codes.getDimensions() == query.length && Objects.equals(stored.modelVersion, modelVersion);
+    }
+
+    /**
+     * Full-precision vector as stored in {@code bug_embeddings.vector}: float32, little-endian
+     */
+    public static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    static float[] fromBytes(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
@@ -0,0 +1,23 @@
+package com.bugtracker.backend.search;
+
+/**
+ * Bug id with a retrieval score; higher is more similar
+ */
+public final class ScoredId {
+
+    private final long id;
+    private final double score;
+
+    public ScoredId(long id, double score) {
+        this.id = id;
+        this.score = score;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,326 @@
+package com.bugtracker.backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Nearest-neighbour index over L2-normalized float vectors.
+ * Vectors live either in an optional memory-mapped snapshot ({@link MappedVectors}) or in a
+ * heap overlay holding changes made since that snapshot; snapshot rows that were replaced
+ * or removed are shadowed. Reads are lock-free; writes must be serialized by the caller.
+ * A search scans int8-quantized copies of every vector for candidates and computes exact
+ * float scores only for those, so the full-precision data is touched for a few rows per query.
+ * The overlay keeps only the int8 codes; exact scores for its rows are read back through a
+ * {@link VectorSource} (the delta log), and without one they are scored from the codes.
+ */
+public class VectorIndex {
+
+    // Candidates kept from the int8 scan per requested result, before exact re-ranking
+    private static final int RERANK_FACTOR = 4;
+    private static final int MIN_RERANK_CANDIDATES = 32;
+
+    private final int dimensions;
+    private final VectorSource source;
+    private volatile State state = new State(null);
+    // Ids written since the last view(), i.e. what a snapshot taken from that view is missing
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Full-precision vectors of overlay rows, addressed by the locator given to {@link #put}
+     */
+    interface VectorSource {
+        /**
+         * @return false when the vector can no longer be read, e.g. its log was deleted
+         */
+        boolean read(long locator, float[] into);
+    }
+
+    private static final class Entry {
+        final QuantizedVector codes;
+        // Where the float vector can be read back from the source, or -1
+        final long locator;
+
+        Entry(float[] vector, long locator) {
+            this.codes = QuantizedVector.quantize(vector);
+            this.locator = locator;
+        }
+    }
+
+    private static final class State {
+        final MappedVectors base;
+        final Map<Long, Entry> overlay = new ConcurrentHashMap<>();
+        final Set<Long> shadowed = ConcurrentHashMap.newKeySet();
+
+        State(MappedVectors base) {
+            this.base = base;
+        }
+
+        float[] get(long id, int dimensions, VectorSource source) {
+            Entry entry = overlay.get(id);
+            if (entry != null) {
+                return full(entry, dimensions, source);
+            }
+            if (base == null || shadowed.contains(id)) {
+                return null;
+            }
+            int row = base.rowOf(id);
+            if (row < 0) {
+                return null;
+            }
+            float[] copy = new float[dimensions];
+            base.read(row, copy);
+            return copy;
+        }
+    }
+
+    public VectorIndex(int dimensions) {
+        this(dimensions, null);
+    }
+
+    VectorIndex(int dimensions, VectorSource source) {
+        this.dimensions = dimensions;
+        this.source = source;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public void put(long id, float[] vector) {
+        put(id, vector, -1);
+    }
+
+    /**
+     * Add or replace a vector whose floats the {@link VectorSource} can read back at {@code locator}
+     */
+    void put(long id, float[] vector, long locator) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        State current = state;
+        // Shadow first: a concurrent search may briefly miss the id, but never sees it twice
+        if (current.base != null && current.base.rowOf(id) >= 0) {
+            current.shadowed.add(id);
+        }
+        current.overlay.put(id, new Entry(vector, locator));
+        touched.add(id);
+    }
+
+    public void remove(long id) {
+        State current = state;
+        if (current.base != null && current.base.rowOf(id) >= 0) {
+            current.shadowed.add(id);
+        }
+        current.overlay.remove(id);
+        touched.add(id);
+    }
+
+    /**
+     * The vector of an id, dequantized when it is on the heap and its floats cannot be read back
+     */
+    public float[] get(long id) {
+        return state.get(id, dimensions, source);
+    }
+
+    public void clear() {
+        state = new State(null);
+        touched.clear();
+    }
+
+    public int size() {
+        State current = state;
+        int baseSize = current.base != null ? current.base.size() : 0;
+        // Replaced snapshot rows are counted in both shadowed and overlay
+        return baseSize - current.shadowed.size() + current.overlay.size();
+    }
+
+    /**
+     * Top-k ids by cosine similarity (dot product of normalized vectors), best first
+     */
+    public List<ScoredId> search(float[] query, int k, double minScore) {
+        return search(query, k, minScore, null);
+    }
+
+    /**
+     * Top-k restricted to the eligible ids; only those vectors are scored. A null bitmap means all ids.
+     */
+    public List<ScoredId> search(float[] query, int k, double minScore, IdBitmap eligible) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        State current = state;
+        MappedVectors base = current.base;
+        double querySum = QuantizedVector.sum(query);
+        int candidates = Math.max(k * RERANK_FACTOR, MIN_RERANK_CANDIDATES);
+        // Candidate scan on int8 codes; the threshold is only applied to exact scores
+        PriorityQueue<ScoredId> approximate = new PriorityQueue<>(candidates + 1, Comparator.comparingDouble(ScoredId::getScore));
+        if (eligible == null) {
+            for (Map.Entry<Long, Entry> entry : current.overlay.entrySet()) {
+                offer(approximate, candidates, entry.getKey(), entry.getValue().codes.dot(query, querySum), Double.NEGATIVE_INFINITY);
+            }
+            if (base != null) {
+                for (int row = 0, n = base.size(); row < n; row++) {
+                    long id = base.idAt(row);
+                    if (!current.shadowed.contains(id)) {
+                        offer(approximate, candidates, id, base.quantizedDot(row, query, querySum), Double.NEGATIVE_INFINITY);
+                    }
+                }
+            }
+        } else {
+            eligible.forEach(id -> {
+                Entry entry = current.overlay.get(id);
+                if (entry != null) {
+                    offer(approximate, candidates, id, entry.codes.dot(query, querySum), Double.NEGATIVE_INFINITY);
+                } else if (base != null && !current.shadowed.contains(id)) {
+                    int row = base.rowOf(id);
+                    if (row >= 0) {
+                        offer(approximate, candidates, id, base.quantizedDot(row, query, querySum), Double.NEGATIVE_INFINITY);
+                    }
+                }
+            });
+        }
+
+        // Exact re-ranking of the candidates; min-heap of the best k
+        PriorityQueue<ScoredId> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble(ScoredId::getScore));
+        float[] logged = new float[dimensions];
+        for (ScoredId candidate : approximate) {
+            long id = candidate.getId();
+            Entry entry = current.overlay.get(id);
+            if (entry != null) {
+                double score = readBack(entry, source, logged) ? dot(query, logged) : entry.codes.dot(query, querySum);
+                offer(best, k, id, score, minScore);
+            } else if (base != null && !current.shadowed.contains(id)) {
+                int row = base.rowOf(id);
+                if (row >= 0) {
+                    offer(best, k, id, base.dot(row, query), minScore);
+                }
+            }
+            // otherwise removed since the scan
+        }
+        List<ScoredId> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(ScoredId::getScore).reversed());
+        return result;
+    }
+
+    /**
+     * Frozen view of the current contents for writing a snapshot, and the start of
+     * change tracking for a later {@link #rebase}. Call while writes are blocked.
+     */
+    View view() {
+        State current = state;
+        touched.clear();
+        return new View(current.base, new HashMap<>(current.overlay), Set.copyOf(current.shadowed), source);
+    }
+
+    /**
+     * Swap in a snapshot written from the last {@link #view()}; only ids written since then stay on the heap.
+     * Call while writes are blocked.
+     */
+    void rebase(MappedVectors snapshot) {
+        State current = state;
+        State next = new State(snapshot);
+        for (Long id : touched) {
+            Entry entry = current.overlay.get(id);
+            if (snapshot.rowOf(id) >= 0) {
+                next.shadowed.add(id);
+            }
+            if (entry != null) {
+                next.overlay.put(id, entry);
+            }
+        }
+        state = next;
+        touched.clear();
+    }
+
+    /**
+     * Replace all contents with a loaded snapshot
+     */
+    void attach(MappedVectors snapshot) {
+        state = new State(snapshot);
+        touched.clear();
+    }
+
+    static final class View {
+        private final MappedVectors base;
+        private final Map<Long, Entry> overlay;
+        private final VectorSource source;
+        private final long[] ids;
+
+        private View(MappedVectors base, Map<Long, Entry> overlay, Set<Long> shadowed, VectorSource source) {
+            this.base = base;
+            this.overlay = overlay;
+            this.source = source;
+            int baseSize = base != null ? base.size() : 0;
+            long[] all = new long[baseSize + overlay.size()];
+            int n = 0;
+            for (int row = 0; row < baseSize; row++) {
+                long id = base.idAt(row);
+                if (!shadowed.contains(id)) {
+                    all[n++] = id;
+                }
+            }
+            for (Long id : overlay.keySet()) {
+                all[n++] = id;
+            }
+            this.ids = Arrays.copyOf(all, n);
+            Arrays.sort(this.ids);
+        }
+
+        /**
+         * Ids in ascending order
+         */
+        long[] ids() {
+            return ids;
+        }
+
+        /**
+         * Full-precision vector of an id. Rows whose log was discarded after a failed write
+         * fall back to their dequantized codes until the bug is indexed again.
+         */
+        void read(long id, float[] into) {
+            Entry entry = overlay.get(id);
+            if (entry == null) {
+                base.read(base.rowOf(id), into);
+            } else if (!readBack(entry, source, into)) {
+                System.arraycopy(entry.codes.dequantize(), 0, into, 0, into.length);
+            }
+        }
+    }
+
+    private static boolean readBack(Entry entry, VectorSource source, float[] into) {
+        return source != null && entry.locator >= 0 && source.read(entry.locator, into);
+    }
+
+    private static float[] full(Entry entry, int dimensions, VectorSource source) {
+        float[] vector = new float[dimensions];
+        return readBack(entry, source, vector) ? vector : entry.codes.dequantize();
+    }
+
+    private static void offer(PriorityQueue<ScoredId> best, int k, long id, double score, double minScore) {
+        if (score < minScore) {
+            return;
+        }
+        if (best.size() < k) {
+            best.add(new ScoredId(id, score));
+        } else if (score > best.peek().getScore()) {
+            best.poll();
+            best.add(new ScoredId(id, score));
+        }
+    }
+
+    static double dot(float[] a, float[] b) {
+        double sum = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
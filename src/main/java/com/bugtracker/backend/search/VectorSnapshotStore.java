@@ -0,0 +1,505 @@
+package com.bugtracker.backend.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk persistence for {@link LocalSimilarityIndex}: a versioned checkpoint file that is
+ * memory-mapped on load, plus append-only delta logs of the writes made since that checkpoint.
+ *
+ * <p>Snapshot layout (little-endian): a 128-byte header (magic, version, dimensions, count,
+ * document count, generation, section offsets, watermark), the per-bucket document frequencies,
+ * the sorted id table, the float vectors row by row starting at a 64-byte aligned offset, the
+ * int8-quantized rows (scale, offset, codes), and finally each bug's document-frequency buckets.
+ * Delta log records are length- and CRC-prefixed so a torn tail after a crash is detected and
+ * cut off on replay. The watermark is the latest bug modification time (epoch millis) covered,
+ * and every logged put carries its own, so a restore can tell whether it missed a change.
+ *
+ * <p>A checkpoint at generation {@code g} covers everything in logs older than {@code g};
+ * logs {@code >= g} are replayed on top of it. The logs double as the full-precision copy of
+ * vectors written since the checkpoint: each put yields a locator (log generation and byte
+ * offset of its floats) that {@link #read} resolves, so the index keeps only int8 codes on the
+ * heap. Not thread-safe except for {@link #read}; the index serializes everything else.
+ */
+class VectorSnapshotStore implements Closeable, VectorIndex.VectorSource {
+
+    static final int MAGIC = 0x42545658;  // "BTVX"
+    static final int VERSION = 3;
+    private static final int HEADER_BYTES = 128;
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final String SNAPSHOT_FILE = "vectors.snap";
+    private static final int[] NO_BUCKETS = new int[0];
+    private static final Pattern LOG_FILE = Pattern.compile("delta-(\\d+)\\.log");
+    // A locator packs the log generation above the byte offset; logs stay far below 1 TB
+    private static final int OFFSET_BITS = 40;
+    private static final int PUT_HEADER_BYTES = 1 + 8 + 8 + 4;
+
+    private final Path directory;
+    private final int dimensions;
+    private FileChannel log;
+    private long generation;
+    // Read-only channels per log generation for locator reads from search threads
+    private final Map<Long, FileChannel> readers = new ConcurrentHashMap<>();
+
+    interface DeltaHandler {
+        void put(long id, long modifiedAt, int[] buckets, float[] vector, long locator);
+
+        void remove(long id);
+    }
+
+    static final class Loaded {
+        final long generation;
+        final long watermark;
+        final int documentCount;
+        final int[] documentFrequencies;
+        final MappedVectors vectors;
+        final Map<Long, int[]> contributions;
+
+        Loaded(long generation, long watermark, int documentCount, int[] documentFrequencies,
+               MappedVectors vectors, Map<Long, int[]> contributions) {
+            this.generation = generation;
+            this.watermark = watermark;
+            this.documentCount = documentCount;
+            this.documentFrequencies = documentFrequencies;
+            this.vectors = vectors;
+            this.contributions = contributions;
+        }
+    }
+
+    VectorSnapshotStore(Path directory, int dimensions) throws IOException {
+        this.directory = directory;
+        this.dimensions = dimensions;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Map the checkpoint file, or return null when there is none
+     */
+    Loaded load() throws IOException {
+        return open(true);
+    }
+
+    private Loaded open(boolean withContributions) throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("Snapshot truncated: " + fileSize + " bytes");
+            }
+            ByteBuffer header = map(channel, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a vector snapshot: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            int fileDimensions = header.getInt();
+            if (fileDimensions != dimensions) {
+                throw new IOException("Snapshot has " + fileDimensions + " dimensions, index has " + dimensions);
+            }
+            int count = header.getInt();
+            int documentCount = header.getInt();
+            long snapshotGeneration = header.getLong();
+            long idsOffset = header.getLong();
+            long vectorsOffset = header.getLong();
+            long codesOffset = header.getLong();
+            long contributionsOffset = header.getLong();
+            long watermark = header.getLong();
+            if (codesOffset != vectorsOffset + 4L * dimensions * count
+                    || contributionsOffset != codesOffset + (long) MappedVectors.codeRowBytes(dimensions) * count
+                    || contributionsOffset > fileSize) {
+                throw new IOException("Snapshot truncated or corrupt: " + file);
+            }
+
+            int[] frequencies = new int[dimensions];
+            map(channel, HEADER_BYTES, 4L * dimensions).asIntBuffer().get(frequencies);
+            long[] ids = new long[count];
+            map(channel, idsOffset, 8L * count).asLongBuffer().get(ids);
+
+            // Each mapping is limited to 2 GB, so large snapshots are split into row-aligned segments
+            int rowBytes = 4 * dimensions;
+            int rowsPerSegment = Math.max(1, Integer.MAX_VALUE / rowBytes);
+            FloatBuffer[] segments = new FloatBuffer[segmentCount(count, rowsPerSegment)];
+            for (int s = 0; s < segments.length; s++) {
+                int rows = Math.min(rowsPerSegment, count - s * rowsPerSegment);
+                long offset = vectorsOffset + (long) s * rowsPerSegment * rowBytes;
+                segments[s] = map(channel, offset, (long) rows * rowBytes).asFloatBuffer();
+            }
+            int codeRowBytes = MappedVectors.codeRowBytes(dimensions);
+            int codeRowsPerSegment = Math.max(1, Integer.MAX_VALUE / codeRowBytes);
+            ByteBuffer[] codeSegments = new ByteBuffer[segmentCount(count, codeRowsPerSegment)];
+            for (int s = 0; s < codeSegments.length; s++) {
+                int rows = Math.min(codeRowsPerSegment, count - s * codeRowsPerSegment);
+                long offset = codesOffset + (long) s * codeRowsPerSegment * codeRowBytes;
+                codeSegments[s] = map(channel, offset, (long) rows * codeRowBytes);
+            }
+
+            Map<Long, int[]> contributions = new HashMap<>();
+            ByteBuffer section = map(channel, contributionsOffset, fileSize - contributionsOffset);
+            for (int row = 0; withContributions && row < count; row++) {
+                long id = ids[row];
+                int[] buckets = new int[section.getInt()];
+                section.asIntBuffer().get(buckets);
+                section.position(section.position() + 4 * buckets.length);
+                contributions.put(id, buckets);
+            }
+            return new Loaded(snapshotGeneration, watermark, documentCount, frequencies,
+                new MappedVectors(dimensions, ids, segments, rowsPerSegment, codeSegments, codeRowsPerSegment),
+                contributions);
+        }
+    }
+
+    /**
+     * Replay delta logs from the given generation in order, then keep appending to the newest one.
+     * A corrupt or torn record ends the replay of its log, and the log is truncated there.
+     *
+     * @return the number of records replayed
+     */
+    long replay(long fromGeneration, DeltaHandler handler) throws IOException {
+        long replayed = 0;
+        long newest = fromGeneration;
+        for (long logGeneration : logGenerations()) {
+            if (logGeneration < fromGeneration) {
+                continue;
+            }
+            newest = logGeneration;
+            replayed += replayLog(logGeneration, handler);
+        }
+        openLog(newest);
+        return replayed;
+    }
+
+    // Read through the channel rather than mapped: truncating a file under a live mapping
+    // is unsafe, and the mapping could not be released before the truncate
+    private long replayLog(long logGeneration, DeltaHandler handler) throws IOException {
+        Path file = logFile(logGeneration);
+        long replayed = 0;
+        long valid = 0;
+        long size;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            ByteBuffer frame = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 crc = new CRC32();
+            while (size - valid >= 8) {
+                frame.clear();
+                readFully(channel, frame, valid);
+                int length = frame.getInt(0);
+                int checksum = frame.getInt(4);
+                if (length <= 0 || length > size - valid - 8) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+                readFully(channel, record, valid + 8);
+                record.flip();
+                crc.reset();
+                crc.update(record.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                apply(record, handler, locator(logGeneration, valid + 8));
+                valid += 8 + length;
+                replayed++;
+            }
+        }
+        if (valid < size) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+            }
+        }
+        return replayed;
+    }
+
+    private void apply(ByteBuffer record, DeltaHandler handler, long recordLocator) throws IOException {
+        byte op = record.get();
+        long id = record.getLong();
+        if (op == OP_REMOVE) {
+            handler.remove(id);
+        } else if (op == OP_PUT) {
+            long modifiedAt = record.getLong();
+            int[] buckets = new int[record.getInt()];
+            record.asIntBuffer().get(buckets);
+            record.position(record.position() + 4 * buckets.length);
+            long vectorLocator = recordLocator + record.position();
+            float[] vector = new float[dimensions];
+            record.asFloatBuffer().get(vector);
+            handler.put(id, modifiedAt, buckets, vector, vectorLocator);
+        } else {
+            throw new IOException("Unknown delta op " + op);
+        }
+    }
+
+    /**
+     * Log a put
+     *
+     * @return the locator of the logged floats, for {@link #read}
+     */
+    long appendPut(long id, long modifiedAt, int[] buckets, float[] vector) throws IOException {
+        long vectorOffset = log.size() + 8 + PUT_HEADER_BYTES + 4L * buckets.length;
+        ByteBuffer record = ByteBuffer.allocate(PUT_HEADER_BYTES + 4 * buckets.length + 4 * vector.length)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        record.put(OP_PUT).putLong(id).putLong(modifiedAt).putInt(buckets.length);
+        record.asIntBuffer().put(buckets);
+        record.position(record.position() + 4 * buckets.length);
+        record.asFloatBuffer().put(vector);
+        record.position(record.limit());
+        append(record);
+        return locator(generation, vectorOffset);
+    }
+
+    /**
+     * Read back logged floats; safe to call concurrently with writes. False when the log is gone,
+     * e.g. deleted by a checkpoint that a concurrent search has not noticed yet.
+     */
+    @Override
+    public boolean read(long locator, float[] into) {
+        long logGeneration = locator >>> OFFSET_BITS;
+        long offset = locator & ((1L << OFFSET_BITS) - 1);
+        try {
+            FileChannel channel = readers.get(logGeneration);
+            if (channel == null) {
+                FileChannel opened = FileChannel.open(logFile(logGeneration), StandardOpenOption.READ);
+                channel = readers.putIfAbsent(logGeneration, opened);
+                if (channel == null) {
+                    channel = opened;
+                } else {
+                    opened.close();
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(4 * into.length).order(ByteOrder.LITTLE_ENDIAN);
+            try {
+                readFully(channel, buffer, offset);
+            } catch (IOException e) {
+                // An interrupted reader closes the channel; drop it so the next read reopens
+                if (!channel.isOpen()) {
+                    readers.remove(logGeneration, channel);
+                }
+                return false;
+            }
+            buffer.flip();
+            buffer.asFloatBuffer().get(into);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    void appendRemove(long id) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(1 + 8).order(ByteOrder.LITTLE_ENDIAN);
+        record.put(OP_REMOVE).putLong(id);
+        append(record);
+    }
+
+    private void append(ByteBuffer record) throws IOException {
+        record.flip();
+        CRC32 crc = new CRC32();
+        crc.update(record.duplicate());
+        ByteBuffer frame = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        frame.putInt(record.remaining()).putInt((int) crc.getValue()).flip();
+        writeFully(log, frame);
+        writeFully(log, record);
+    }
+
+    /**
+     * Start a new delta log; writes from now on belong to the next checkpoint's generation
+     */
+    long rotate() throws IOException {
+        openLog(generation + 1);
+        return generation;
+    }
+
+    /**
+     * Write a checkpoint of the view and atomically replace the previous one. Logs older than
+     * {@code checkpointGeneration} are deleted afterwards; the new file is returned mapped.
+     */
+    MappedVectors writeSnapshot(long checkpointGeneration, long watermark, VectorIndex.View view, int[] frequencies,
+                                int documentCount, Map<Long, int[]> contributions) throws IOException {
+        long[] ids = view.ids();
+        int count = ids.length;
+        long idsOffset = HEADER_BYTES + 4L * dimensions;
+        long vectorsOffset = align(idsOffset + 8L * count, 64);
+        long codesOffset = vectorsOffset + 4L * dimensions * count;
+        long contributionsOffset = codesOffset + (long) MappedVectors.codeRowBytes(dimensions) * count;
+
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(dimensions).putInt(count).putInt(documentCount)
+                .putLong(checkpointGeneration).putLong(idsOffset).putLong(vectorsOffset).putLong(codesOffset)
+                .putLong(contributionsOffset).putLong(watermark);
+            buffer.position(HEADER_BYTES);
+            for (int frequency : frequencies) {
+                buffer = ensure(channel, buffer, 4).putInt(frequency);
+            }
+            for (long id : ids) {
+                buffer = ensure(channel, buffer, 8).putLong(id);
+            }
+            long written = channel.position() + buffer.position();
+            for (long pad = written; pad < vectorsOffset; pad++) {
+                buffer = ensure(channel, buffer, 1).put((byte) 0);
+            }
+            float[] vector = new float[dimensions];
+            for (long id : ids) {
+                view.read(id, vector);
+                buffer = ensure(channel, buffer, 4 * dimensions);
+                buffer.asFloatBuffer().put(vector);
+                buffer.position(buffer.position() + 4 * dimensions);
+            }
+            for (long id : ids) {
+                view.read(id, vector);
+                QuantizedVector quantized = QuantizedVector.quantize(vector);
+                buffer = ensure(channel, buffer, MappedVectors.codeRowBytes(dimensions));
+                buffer.putFloat(quantized.getScale()).putFloat(quantized.getOffset()).put(quantized.getCodes());
+            }
+            for (long id : ids) {
+                int[] buckets = contributions.getOrDefault(id, NO_BUCKETS);
+                buffer = ensure(channel, buffer, 4).putInt(buckets.length);
+                for (int bucket : buckets) {
+                    buffer = ensure(channel, buffer, 4).putInt(bucket);
+                }
+            }
+            buffer.flip();
+            writeFully(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (long logGeneration : logGenerations()) {
+            if (logGeneration < checkpointGeneration) {
+                deleteLog(logGeneration);
+            }
+        }
+        return open(false).vectors;
+    }
+
+    /**
+     * Drop the checkpoint and all logs, e.g. after a full rebuild or a failed append, and
+     * start a fresh log. Until the next checkpoint a restart falls back to a rebuild.
+     */
+    void invalidate() throws IOException {
+        Files.deleteIfExists(directory.resolve(SNAPSHOT_FILE));
+        long next = generation + 1;
+        for (long logGeneration : logGenerations()) {
+            next = Math.max(next, logGeneration + 1);
+            deleteLog(logGeneration);
+        }
+        openLog(next);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeLog();
+        for (Long logGeneration : readers.keySet()) {
+            closeReader(logGeneration);
+        }
+    }
+
+    private void closeLog() throws IOException {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    private void deleteLog(long logGeneration) throws IOException {
+        closeReader(logGeneration);
+        Files.deleteIfExists(logFile(logGeneration));
+    }
+
+    private void closeReader(long logGeneration) throws IOException {
+        FileChannel reader = readers.remove(logGeneration);
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    private static long locator(long logGeneration, long offset) {
+        return logGeneration << OFFSET_BITS | offset;
+    }
+
+    private void openLog(long logGeneration) throws IOException {
+        closeLog();
+        log = FileChannel.open(logFile(logGeneration), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        generation = logGeneration;
+    }
+
+    private List<Long> logGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = LOG_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    generations.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private Path logFile(long logGeneration) {
+        return directory.resolve("delta-" + logGeneration + ".log");
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of log");
+            }
+        }
+    }
+
+    private static ByteBuffer ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            buffer.flip();
+            writeFully(channel, buffer);
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int segmentCount(int rows, int rowsPerSegment) {
+        return rows == 0 ? 0 : (rows + rowsPerSegment - 1) / rowsPerSegment;
+    }
+
+    private static long align(long value, int alignment) {
+        return (value + alignment - 1) / alignment * alignment;
+    }
+}
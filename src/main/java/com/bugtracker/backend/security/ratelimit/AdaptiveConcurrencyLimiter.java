@@ -0,0 +1,107 @@
+package com.bugtracker.backend.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Global in-flight limit that follows observed latency (AIMD).
+ * Latencies are compared with a slow moving baseline: while requests complete within
+ * {@code tolerance} times the baseline and the limit is being used, it grows by about one
+ * per limit's worth of completions; a slow or failed request cuts it by 10%, at most once
+ * per baseline latency so a burst of slow completions counts as one congestion signal.
+ * All state is in atomics; nothing blocks. Times are passed in (System.nanoTime()) as in {@link TokenBucket}.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BASELINE_ALPHA = 0.02;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Doubles stored as raw long bits so they can be CAS-updated
+    private final AtomicLong limitBits;
+    private final AtomicLong baselineBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicLong lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, long nowNanos) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(
+            Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit))));
+        this.lastDecreaseNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Claim a slot without waiting; every granted slot must be {@link #release released}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return a slot with the request's latency
+     *
+     * @param failed the request failed in a way that suggests overload (5xx, timeout)
+     * @param nowNanos completion time
+     */
+    public void release(long latencyNanos, boolean failed, long nowNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        double baseline = updateBaseline(latencyNanos);
+        double limit = Double.longBitsToDouble(limitBits.get());
+
+        if (failed || latencyNanos > baseline * tolerance) {
+            long last = lastDecreaseNanos.get();
+            if (nowNanos - last > (long) baseline && lastDecreaseNanos.compareAndSet(last, nowNanos)) {
+                updateLimit(current -> Math.max(minLimit, current * BACKOFF_RATIO));
+            }
+        } else if (inFlightAtCompletion * 2 >= limit) {
+            // Only grow while the limit is actually the constraint
+            updateLimit(current -> Math.min(maxLimit, current + 1.0 / current));
+        }
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getBaselineLatencyNanos() {
+        return (long) Double.longBitsToDouble(baselineBits.get());
+    }
+
+    private double updateBaseline(long latencyNanos) {
+        while (true) {
+            long bits = baselineBits.get();
+            double current = Double.longBitsToDouble(bits);
+            double next = current == 0.0 ? latencyNanos : current + BASELINE_ALPHA * (latencyNanos - current);
+            if (baselineBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return next;
+            }
+        }
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        while (true) {
+            long bits = limitBits.get();
+            double next = update.applyAsDouble(Double.longBitsToDouble(bits));
+            if (limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
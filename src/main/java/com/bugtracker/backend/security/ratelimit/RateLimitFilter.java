@@ -0,0 +1,200 @@
+package com.bugtracker.backend.security.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for the public API. Every matching request takes a token from the
+ * caller's bucket (per user when authenticated, else per client IP) and is refused with 429
+ * when it is empty. Requests to the AI endpoints must also get a slot from the adaptive
+ * global limiter and are refused with 503 when none is free. Nothing is queued, so a flood
+ * costs a map lookup per request instead of a servlet thread held for the AI timeout.
+ * Runs after {@link com.bugtracker.backend.security.jwt.AuthTokenFilter} so users are known.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.paths:/api/ai/**,/api/bugs/**}")
+    private String[] paths;
+
+    @Value("${rate-limit.concurrency-paths:/api/ai/**,/api/bugs/ai/**}")
+    private String[] concurrencyPaths;
+
+    @Value("${rate-limit.user.requests-per-second:10}")
+    private double userRate;
+
+    @Value("${rate-limit.user.burst:50}")
+    private int userBurst;
+
+    @Value("${rate-limit.anonymous.requests-per-second:5}")
+    private double anonymousRate;
+
+    @Value("${rate-limit.anonymous.burst:30}")
+    private int anonymousBurst;
+
+    @Value("${rate-limit.concurrency.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${rate-limit.concurrency.min-limit:4}")
+    private int minLimit;
+
+    @Value("${rate-limit.concurrency.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${rate-limit.concurrency.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime() + SWEEP_INTERVAL_NANOS);
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @PostConstruct
+    public void init() {
+        limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyTolerance, System.nanoTime());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!enabled || HttpMethod.OPTIONS.matches(request.getMethod()) || !matches(paths, path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        sweep(now);
+        long waitNanos = bucketFor(request, now).tryAcquire(now);
+        if (waitNanos > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS.value(), waitNanos, "Too many requests");
+            return;
+        }
+
+        if (!matches(concurrencyPaths, path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            logger.debug("Concurrency limit {} reached, refusing {}", limiter.getLimit(), path);
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE.value(), TimeUnit.SECONDS.toNanos(1), "Server busy");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The handler returned a future; the slot is held until the response completes
+                request.getAsyncContext().addListener(new SlotRelease(start));
+            } else {
+                long end = System.nanoTime();
+                limiter.release(end - start, failed, end);
+            }
+        }
+    }
+
+    /**
+     * Releases an async request's limiter slot once, when the response is complete
+     */
+    private final class SlotRelease implements AsyncListener {
+        private final long start;
+        private volatile boolean failed;
+
+        SlotRelease(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            int status = ((HttpServletResponse) event.getSuppliedResponse()).getStatus();
+            long end = System.nanoTime();
+            limiter.release(end - start, failed || status >= 500, end);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners are cleared when async processing restarts
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private TokenBucket bucketFor(HttpServletRequest request, long now) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return buckets.computeIfAbsent("user:" + authentication.getName(),
+                key -> new TokenBucket(userRate, userBurst, now));
+        }
+        // getRemoteAddr honours forwarded headers only when server.forward-headers-strategy is set
+        return buckets.computeIfAbsent("ip:" + request.getRemoteAddr(),
+            key -> new TokenBucket(anonymousRate, anonymousBurst, now));
+    }
+
+    /**
+     * Drop fully refilled buckets so one-off clients don't accumulate.
+     * A bucket removed while in use only costs that client part of a burst.
+     */
+    private void sweep(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        }
+    }
+
+    private boolean matches(String[] patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void reject(HttpServletResponse response, int status, long retryAfterNanos, String message)
+            throws IOException {
+        long seconds = Math.max(1L, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(status);
+        response.setHeader("Retry-After", Long.toString(seconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"message\":\"Error: " + message + "\"}");
+    }
+}
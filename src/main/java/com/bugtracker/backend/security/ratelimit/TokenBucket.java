@@ -0,0 +1,48 @@
+package com.bugtracker.backend.security.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (GCRA):
+ * each request pushes it forward by one emission interval, and a request is refused
+ * when that would put it more than a burst ahead of now. One CAS per request.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong arrival;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+        this.arrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take one token.
+     *
+     * @return 0 if granted, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * True once the bucket has refilled completely, i.e. it is indistinguishable from a new one
+     */
+    public boolean isIdle(long nowNanos) {
+        return arrival.get() - nowNanos <= 0;
+    }
+}
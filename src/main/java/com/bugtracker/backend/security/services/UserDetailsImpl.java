@@ -1,9 +1,9 @@
 package com.bugtracker.backend.security.services;
 
 import com.bugtracker.backend.model.User;
+import com.bugtracker.backend.service.RoleRegistry;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
@@ -34,7 +34,7 @@ public class UserDetailsImpl implements UserDetails {
 
     public static UserDetailsImpl build(User user) {
         List<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName().name()))
+                .map(role -> RoleRegistry.authorityOf(role.getName()))
                 .collect(Collectors.toList());
 
         return new UserDetailsImpl(
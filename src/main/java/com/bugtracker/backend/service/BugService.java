@@ -1,15 +1,43 @@
 package com.bugtracker.backend.service;
 
-import com.bugtracker.backend.ai.AIServiceClient;
+import com.bugtracker.backend.ai.AIWorkScheduler;
+import com.bugtracker.backend.ai.TieredBugAnalysisService;
+import com.bugtracker.backend.event.BugCreatedEvent;
+import com.bugtracker.backend.event.BugDeletedEvent;
+import com.bugtracker.backend.event.BugEvent;
+import com.bugtracker.backend.event.BugUpdatedEvent;
+import com.bugtracker.backend.model.AIAnalysis;
 import com.bugtracker.backend.model.Bug;
+import com.bugtracker.backend.model.BugEmbedding;
 import com.bugtracker.backend.payload.response.AIAnalysisResponse;
+import com.bugtracker.backend.payload.response.AssigneeSuggestionResponse;
+import com.bugtracker.backend.payload.response.BugClusterResponse;
+import com.bugtracker.backend.repository.AIAnalysisRepository;
+import com.bugtracker.backend.repository.BugEmbeddingRepository;
 import com.bugtracker.backend.repository.BugRepository;
+import com.bugtracker.backend.search.AssigneeRecommender;
+import com.bugtracker.backend.search.BugClusterIndex;
+import com.bugtracker.backend.search.BugFilter;
+import com.bugtracker.backend.search.HybridRetriever;
+import com.bugtracker.backend.search.LocalSimilarityIndex;
+import com.bugtracker.backend.search.MinHashIndex;
+import com.bugtracker.backend.search.QuantizedVector;
+import com.bugtracker.backend.search.RemoteEmbeddingIndex;
+import com.bugtracker.backend.search.ScoredId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,11 +46,46 @@ public class BugService {
     @Autowired
     private BugRepository bugRepository;
     
+    @Autowired
+    private BugEmbeddingRepository bugEmbeddingRepository;
+
+    @Autowired
+    private AIAnalysisRepository aiAnalysisRepository;
+    
     @Autowired(required = false)
-    private AIServiceClient aiServiceClient;
+    private TieredBugAnalysisService tieredAnalysis;
+
+    @Autowired
+    private MinHashIndex minHashIndex;
+    
+    @Autowired
+    private HybridRetriever hybridRetriever;
+
+    @Autowired
+    private RemoteEmbeddingIndex remoteEmbeddingIndex;
+
+    @Autowired
+    private AssigneeRecommender assigneeRecommender;
+
+    @Autowired
+    private BugClusterIndex clusterIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     
     @Value("${ai.enabled:false}")
     private boolean aiEnabled;
+    
+    // "remote" fuses BM25 with the stored AI service embeddings (falling back to "hybrid"),
+    // "hybrid" fuses BM25 with local vectors, "local" uses local vectors only and never leaves the JVM
+    @Value("${ai.similarity.backend:remote}")
+    private String similarityBackend;
+    
+    @Value("${ai.similarity.local-min-score:0.2}")
+    private double localMinScore;
 
     public List<Bug> getAllBugs() {
         return bugRepository.findAll();
@@ -34,6 +97,7 @@ public class BugService {
 
     public Bug createBug(Bug bug) {
         bug.setCreatedAt(LocalDateTime.now());
+        bug.setUpdatedAt(bug.getCreatedAt());
         
         // Auto-fill status if not provided
         if (bug.getStatus() == null || bug.getStatus().isEmpty()) {
@@ -41,10 +105,13 @@ public class BugService {
         }
         
         // AI Analysis (if enabled)
-        if (aiEnabled && aiServiceClient != null && bug.getDescription() != null) {
+        AIAnalysisResponse aiAnalysis = null;
+        if (aiEnabled && tieredAnalysis != null && bug.getDescription() != null) {
             try {
                 String fullText = (bug.getTitle() != null ? bug.getTitle() + " " : "") + bug.getDescription();
-                AIAnalysisResponse aiAnalysis = getAIAnalysis(fullText);
+                // Triage only: duplicates come from MinHash below, so no similar-bug lookup (and no
+                // remote call unless the local tier is unsure)
+                aiAnalysis = tieredAnalysis.analyze(fullText, AIWorkScheduler.WorkClass.CREATE_ENRICHMENT);
                 
                 if (aiAnalysis != null) {
                     // Set AI-predicted values if not manually set
@@ -66,12 +133,58 @@ public class BugService {
             }
         }
         
-        return bugRepository.save(bug);
+        // Near-duplicate candidates via MinHash/LSH, looked up before the new bug is indexed
+        int[] signature = minHashIndex.signatureOf(LocalSimilarityIndex.textOf(bug));
+        bug.setMinhashSignature(MinHashIndex.toBytes(signature));
+        List<ScoredId> duplicates = minHashIndex.findDuplicates(signature, null, 5);
+        
+        // Only the write is transactional; the AI analysis above must not hold a connection.
+        // Search indexes are updated from the event once the insert commits.
+        AIAnalysisResponse analysis = aiAnalysis;
+        Bug saved = transactionTemplate.execute(status -> {
+            Bug inserted = bugRepository.save(bug);
+            saveEmbedding(inserted.getId(), analysis);
+            saveAnalysis(inserted.getId(), analysis);
+            eventPublisher.publishEvent(new BugCreatedEvent(inserted));
+            return inserted;
+        });
+        if (analysis != null && (analysis.getEmbedding() == null || analysis.getEmbedding().length == 0)) {
+            enrichLater(saved.getId(), LocalSimilarityIndex.textOf(saved));
+        }
+        saved.setDuplicateCandidates(toSimilarBugInfo(duplicates));
+        return saved;
+    }
+    
+    /**
+     * Most creates are answered by the local tier, which has no summary or embedding. Fetch the
+     * remote analysis in the background and store it next to the bug; when the remote tier is
+     * off or down this is skipped and the embedding backfill fills the gap later.
+     */
+    private void enrichLater(Long bugId, String text) {
+        tieredAnalysis.enrichAsync(text, AIWorkScheduler.WorkClass.CREATE_ENRICHMENT)
+            .thenAccept(remote -> {
+                if (remote == null) {
+                    return;
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    // The bug may have been deleted while the call was queued
+                    if (bugRepository.existsById(bugId)) {
+                        saveEmbedding(bugId, remote);
+                        saveAnalysis(bugId, remote);
+                    }
+                });
+            })
+            .exceptionally(e -> {
+                System.err.println("AI enrichment failed: " + e.getMessage());
+                return null;
+            });
     }
 
+    @Transactional
     public Bug updateBug(Long id, Bug updatedBug) {
         return bugRepository.findById(id)
             .map(existing -> {
+                Bug before = BugEvent.snapshot(existing);
                 existing.setTitle(updatedBug.getTitle());
                 existing.setDescription(updatedBug.getDescription());
                 existing.setPriority(updatedBug.getPriority());
@@ -80,138 +193,282 @@ public class BugService {
                 existing.setStatus(updatedBug.getStatus());
                 existing.setAssignee(updatedBug.getAssignee());
                 existing.setDueDate(updatedBug.getDueDate());
-                return bugRepository.save(existing);
+                existing.setUpdatedAt(LocalDateTime.now());
+                int[] signature = minHashIndex.signatureOf(LocalSimilarityIndex.textOf(existing));
+                existing.setMinhashSignature(MinHashIndex.toBytes(signature));
+                Bug saved = bugRepository.save(existing);
+                if (!LocalSimilarityIndex.textOf(before).equals(LocalSimilarityIndex.textOf(saved))) {
+                    refreshEmbedding(saved.getId(), LocalSimilarityIndex.textOf(saved));
+                }
+                eventPublisher.publishEvent(new BugUpdatedEvent(before, saved));
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("Bug not found"));
     }
 
+    /**
+     * The stored remote embedding describes the old text: drop it with the update and fetch a new
+     * one once the update commits. If the remote tier is down, the next backfill fills the gap.
+     */
+    private void refreshEmbedding(Long bugId, String text) {
+        bugEmbeddingRepository.findById(bugId).ifPresent(bugEmbeddingRepository::delete);
+        remoteEmbeddingIndex.removeAfterCommit(bugId);
+        if (aiEnabled && tieredAnalysis != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enrichLater(bugId, text);
+                }
+            });
+        }
+    }
+
+    @Transactional
     public void deleteBug(Long id) {
-        bugRepository.deleteById(id);
+        bugRepository.findById(id).ifPresent(bug -> {
+            bugEmbeddingRepository.findById(id).ifPresent(bugEmbeddingRepository::delete);
+            aiAnalysisRepository.deleteByBugId(id);
+            bugRepository.delete(bug);
+            eventPublisher.publishEvent(new BugDeletedEvent(bug));
+        });
+    }
+    
+    /**
+     * Store the remote model's embedding int8-quantized, replacing any earlier one; local-tier
+     * results carry no embedding and are enriched afterwards
+     */
+    private void saveEmbedding(Long bugId, AIAnalysisResponse analysis) {
+        if (analysis == null || analysis.getEmbedding() == null || analysis.getEmbedding().length == 0) {
+            return;
+        }
+        QuantizedVector quantized = QuantizedVector.quantize(analysis.getEmbedding());
+        remoteEmbeddingIndex.putAfterCommit(bugId, analysis.getModelVersion(), quantized);
+        // An existing row is loaded so it is updated; a builder-made one would be inserted again
+        BugEmbedding row = bugEmbeddingRepository.findById(bugId)
+            .orElseGet(() -> BugEmbedding.builder().bugId(bugId).build());
+        row.setModelVersion(analysis.getModelVersion());
+        row.setDimensions(quantized.getDimensions());
+        row.setScale(quantized.getScale());
+        row.setOffset(quantized.getOffset());
+        row.setCodes(quantized.getCodes());
+        row.setVector(RemoteEmbeddingIndex.toBytes(analysis.getEmbedding()));
+        row.setUpdatedAt(LocalDateTime.now());
+        bugEmbeddingRepository.save(row);
     }
     
     /**
-     * Get AI analysis for bug description
+     * Keep the full analysis (summary, confidence, model version, review flag) next to the bug.
+     * A re-analysis with the same model version (after an edit) replaces the row and its review.
      */
-    public AIAnalysisResponse getAIAnalysis(String bugDescription) {
-        if (!aiEnabled || aiServiceClient == null) {
-            return null;
+    private void saveAnalysis(Long bugId, AIAnalysisResponse analysis) {
+        if (analysis == null) {
+            return;
+        }
+        String modelVersion = analysis.getModelVersion() != null ? analysis.getModelVersion() : "unknown";
+        AIAnalysis row = aiAnalysisRepository.findByBugIdAndModelVersion(bugId, modelVersion)
+            .orElseGet(() -> AIAnalysis.builder().bugId(bugId).modelVersion(modelVersion).build());
+        row.setSeverity(analysis.getSeverity());
+        row.setPriority(analysis.getPriority());
+        row.setTags(analysis.getTags() != null ? String.join(", ", analysis.getTags()) : null);
+        row.setSummary(analysis.getSummary());
+        row.setConfidence(analysis.getConfidence());
+        row.setNeedsReview(analysis.getNeedsReview());
+        row.setCreatedAt(LocalDateTime.now());
+        row.setReviewedAt(null);
+        aiAnalysisRepository.save(row);
+    }
+    
+    /**
+     * Stored analysis of a bug, newest model version first; no AI call is made
+     */
+    public Optional<AIAnalysis> getStoredAnalysis(Long bugId) {
+        return aiAnalysisRepository.findFirstByBugIdOrderByCreatedAtDesc(bugId);
+    }
+    
+    public List<AIAnalysis> getReviewQueue(int page, int size) {
+        return aiAnalysisRepository.findByNeedsReviewTrueOrderByConfidenceAsc(PageRequest.of(page, size));
+    }
+    
+    /**
+     * Take a bug's latest analysis off the review queue
+     */
+    @Transactional
+    public Optional<AIAnalysis> markAnalysisReviewed(Long bugId) {
+        return aiAnalysisRepository.findFirstByBugIdOrderByCreatedAtDesc(bugId)
+            .map(analysis -> {
+                analysis.setNeedsReview(false);
+                analysis.setReviewedAt(LocalDateTime.now());
+                return analysis;
+            });
+    }
+    
+    /**
+     * Likely assignees and tags for a bug, from the centroids of resolved bugs
+     */
+    public Optional<AssigneeSuggestionResponse> suggestAssignees(Long bugId, int limit) {
+        return bugRepository.findById(bugId).map(bug -> {
+            float[] query = assigneeRecommender.embed(LocalSimilarityIndex.textOf(bug));
+            return new AssigneeSuggestionResponse(bugId,
+                assigneeRecommender.suggestAssignees(query, limit),
+                assigneeRecommender.suggestTags(query, limit));
+        });
+    }
+    
+    /**
+     * Groups of similar bugs from the current cluster model, largest first
+     */
+    public List<BugClusterIndex.Cluster> getClusters(int memberLimit) {
+        return clusterIndex.getClusters(memberLimit);
+    }
+    
+    /**
+     * A bug's cluster and solution hints from the resolved bugs in it
+     */
+    public Optional<BugClusterResponse> getBugCluster(Long bugId, int memberLimit) {
+        return bugRepository.findById(bugId).map(bug -> new BugClusterResponse(bugId,
+            clusterIndex.getClusterOf(bugId, memberLimit),
+            clusterIndex.suggestSolutions(LocalSimilarityIndex.textOf(bug), bugId, 3)));
+    }
+    
+    /**
+     * Non-blocking AI analysis with similar bugs; completes with null if analysis is unavailable.
+     * Local rules/model answer first and the remote AI service is only called for low-confidence
+     * texts. The similar-bug lookup is a later stage: with the "remote" backend it reuses the
+     * escalation's embedding, so a text costs at most one remote call.
+     */
+    public CompletableFuture<AIAnalysisResponse> getAIAnalysisAsync(String bugDescription,
+                                                                    AIWorkScheduler.WorkClass workClass) {
+        if (!aiEnabled || tieredAnalysis == null) {
+            return CompletableFuture.completedFuture(null);
         }
         
         try {
-            // Call comprehensive analysis endpoint
-            AIServiceClient.ComprehensiveAnalysisResponse response = 
-                aiServiceClient.getComprehensiveAnalysis(bugDescription);
-            
-            if (response != null) {
-                AIAnalysisResponse analysis = new AIAnalysisResponse();
-                analysis.setSeverity(response.getSeverity());
-                analysis.setPriority(response.getPriority());
-                analysis.setTags(response.getTags());
-                analysis.setSummary(response.getSummary());
-                analysis.setEmbedding(response.getEmbedding());
-                analysis.setConfidence(response.getConfidence());
-                analysis.setModelVersion(response.getModelVersion());
-                // Mark for review if confidence is low
-                if (response.getConfidence() != null && response.getConfidence() < 0.6) {
-                    analysis.setNeedsReview(true);
-                } else {
-                    analysis.setNeedsReview(false);
-                }
-                
-                // Find similar bugs
-                List<AIAnalysisResponse.SimilarBugInfo> similarBugs = findSimilarBugs(bugDescription, 5);
-                analysis.setSimilarBugs(similarBugs);
-                
-                return analysis;
-            }
+            return tieredAnalysis.analyzeAsync(bugDescription, workClass)
+                .thenCompose(analysis -> findSimilarBugsAsync(bugDescription, analysis, 5, null, workClass)
+                    .thenApply(similarBugs -> {
+                        analysis.setSimilarBugs(similarBugs);
+                        return analysis;
+                    }))
+                .exceptionally(e -> {
+                    System.err.println("Error getting AI analysis: " + e.getMessage());
+                    return null;
+                });
         } catch (Exception e) {
             System.err.println("Error getting AI analysis: " + e.getMessage());
         }
         
-        return null;
+        return CompletableFuture.completedFuture(null);
     }
-    
+
     /**
-     * Find similar bugs using AI embeddings
+     * Analyze many texts in one go. Each distinct text is analyzed once, answered texts are
+     * cached across requests, uncached texts share one batched pass of the local classifiers,
+     * and escalations are queued as batch work. {@code onResult} receives
+     * each input position with its analysis (null if unavailable) as soon as it is ready;
+     * duplicate texts share one instance, so copy before modifying.
      */
-    public List<AIAnalysisResponse.SimilarBugInfo> findSimilarBugs(String bugDescription, int limit) {
-        if (!aiEnabled || aiServiceClient == null) {
-            return Collections.emptyList();
+    public CompletableFuture<Void> analyzeBatch(List<String> texts, BiConsumer<Integer, AIAnalysisResponse> onResult) {
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            positions.computeIfAbsent(texts.get(i).trim(), text -> new ArrayList<>()).add(i);
         }
         
+        List<String> distinct = new ArrayList<>(positions.keySet());
+        List<CompletableFuture<AIAnalysisResponse>> analyses = analyzeAll(distinct);
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            List<Integer> indexes = positions.get(distinct.get(i));
+            pending.add(analyses.get(i)
+                .thenAccept(analysis -> indexes.forEach(index -> onResult.accept(index, analysis))));
+        }
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]));
+    }
+    
+    private List<CompletableFuture<AIAnalysisResponse>> analyzeAll(List<String> texts) {
+        if (aiEnabled && tieredAnalysis != null) {
+            try {
+                return tieredAnalysis.analyzeAllAsync(texts, AIWorkScheduler.WorkClass.BATCH);
+            } catch (Exception e) {
+                System.err.println("Error getting AI analysis: " + e.getMessage());
+            }
+        }
+        return texts.stream()
+            .map(text -> CompletableFuture.<AIAnalysisResponse>completedFuture(null))
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Find similar bugs with hybrid retrieval, among those matching the filter (status, priority,
+     * severity, assignee, created range): BM25 over titles/descriptions fused with vector
+     * neighbours from the configured backend. The filter is applied with bitmaps before scoring,
+     * and only the fused top-k are loaded from the database. Completes without blocking the
+     * caller; the "remote" backend's query embedding is fetched under the given work class.
+     */
+    public CompletableFuture<List<AIAnalysisResponse.SimilarBugInfo>> findSimilarBugsAsync(
+            String bugDescription, int limit, BugFilter filter, AIWorkScheduler.WorkClass workClass) {
+        return findSimilarBugsAsync(bugDescription, null, limit, filter, workClass);
+    }
+    
+    /**
+     * As above, reusing {@code known} (e.g. an escalated analysis) when it already carries an embedding
+     */
+    private CompletableFuture<List<AIAnalysisResponse.SimilarBugInfo>> findSimilarBugsAsync(
+            String bugDescription, AIAnalysisResponse known, int limit, BugFilter filter,
+            AIWorkScheduler.WorkClass workClass) {
+        if (!aiEnabled) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        if ("remote".equalsIgnoreCase(similarityBackend) && tieredAnalysis != null) {
+            CompletableFuture<AIAnalysisResponse> remote = hasEmbedding(known)
+                ? CompletableFuture.completedFuture(known)
+                : tieredAnalysis.enrichAsync(bugDescription, workClass);
+            return remote.thenApply(analysis -> searchSimilar(bugDescription, analysis, limit, filter));
+        }
+        return CompletableFuture.completedFuture(searchSimilar(bugDescription, null, limit, filter));
+    }
+    
+    private List<AIAnalysisResponse.SimilarBugInfo> searchSimilar(String bugDescription, AIAnalysisResponse remote,
+                                                                 int limit, BugFilter filter) {
         try {
-            // Get embedding for current bug
-            List<Double> currentEmbedding = aiServiceClient.generateEmbedding(bugDescription);
-            if (currentEmbedding == null || currentEmbedding.isEmpty()) {
-                return Collections.emptyList();
+            if ("local".equalsIgnoreCase(similarityBackend)) {
+                return toSimilarBugInfo(hybridRetriever.searchVectors(bugDescription, limit, localMinScore, filter));
             }
-            
-            // Get all bugs with descriptions
-            List<Bug> allBugs = bugRepository.findAll();
-            
-            // Calculate similarity scores
-            List<AIAnalysisResponse.SimilarBugInfo> similarBugs = new ArrayList<>();
-            
-            for (Bug bug : allBugs) {
-                if (bug.getDescription() == null || bug.getDescription().isEmpty()) {
-                    continue;
-                }
-                
-                try {
-                    List<Double> bugEmbedding = aiServiceClient.generateEmbedding(
-                        (bug.getTitle() != null ? bug.getTitle() + " " : "") + bug.getDescription()
-                    );
-                    
-                    if (bugEmbedding != null && !bugEmbedding.isEmpty()) {
-                        double similarity = cosineSimilarity(currentEmbedding, bugEmbedding);
-                        
-                        if (similarity > 0.7) {  // Threshold for similarity
-                            AIAnalysisResponse.SimilarBugInfo similarBug = 
-                                new AIAnalysisResponse.SimilarBugInfo();
-                            similarBug.setBugId(bug.getId());
-                            similarBug.setTitle(bug.getTitle());
-                            similarBug.setSimilarityScore(similarity);
-                            similarBugs.add(similarBug);
-                        }
-                    }
-                } catch (Exception e) {
-                    // Skip this bug if embedding fails
-                    continue;
-                }
+            if (hasEmbedding(remote)) {
+                return toSimilarBugInfo(hybridRetriever.search(bugDescription, remote.getEmbedding(),
+                    remote.getModelVersion(), limit, filter));
             }
-            
-            // Sort by similarity and return top N
-            similarBugs.sort((a, b) -> Double.compare(b.getSimilarityScore(), a.getSimilarityScore()));
-            return similarBugs.stream().limit(limit).collect(Collectors.toList());
-            
+            // No remote embedding (remote tier off, down or failed): local vectors instead
+            return toSimilarBugInfo(hybridRetriever.search(bugDescription, limit, filter));
         } catch (Exception e) {
             System.err.println("Error finding similar bugs: " + e.getMessage());
             return Collections.emptyList();
         }
     }
     
+    private static boolean hasEmbedding(AIAnalysisResponse analysis) {
+        return analysis != null && analysis.getEmbedding() != null && analysis.getEmbedding().length > 0;
+    }
+    
     /**
-     * Calculate cosine similarity between two vectors
+     * Load titles for scored ids in one query, keeping the score order
      */
-    private double cosineSimilarity(List<Double> vecA, List<Double> vecB) {
-        if (vecA.size() != vecB.size()) {
-            return 0.0;
+    private List<AIAnalysisResponse.SimilarBugInfo> toSimilarBugInfo(List<ScoredId> hits) {
+        if (hits.isEmpty()) {
+            return Collections.emptyList();
         }
         
-        double dotProduct = 0.0;
-        double normA = 0.0;
-        double normB = 0.0;
-        
-        for (int i = 0; i < vecA.size(); i++) {
-            dotProduct += vecA.get(i) * vecB.get(i);
-            normA += vecA.get(i) * vecA.get(i);
-            normB += vecB.get(i) * vecB.get(i);
-        }
+        Map<Long, Bug> bugsById = bugRepository.findAllById(
+                hits.stream().map(ScoredId::getId).collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.toMap(Bug::getId, bug -> bug));
         
-        if (normA == 0.0 || normB == 0.0) {
-            return 0.0;
+        List<AIAnalysisResponse.SimilarBugInfo> similarBugs = new ArrayList<>();
+        for (ScoredId hit : hits) {
+            Bug bug = bugsById.get(hit.getId());
+            if (bug != null) {
+                similarBugs.add(new AIAnalysisResponse.SimilarBugInfo(bug.getId(), bug.getTitle(), hit.getScore()));
+            }
         }
-        
-        return dotProduct / (Math.sqrt(normA) * Math.sqrt(normB));
+        return similarBugs;
     }
 }
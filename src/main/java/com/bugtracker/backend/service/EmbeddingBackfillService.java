@@ -0,0 +1,438 @@
+package com.bugtracker.backend.service;
+
+import com.bugtracker.backend.ai.AIHealthMonitor;
+import com.bugtracker.backend.ai.AIServiceClient;
+import com.bugtracker.backend.ai.AIWorkScheduler;
+import com.bugtracker.backend.ai.TieredBugAnalysisService;
+import com.bugtracker.backend.event.BugEvent;
+import com.bugtracker.backend.event.BugUpdatedEvent;
+import com.bugtracker.backend.model.AIAnalysis;
+import com.bugtracker.backend.model.BackfillJob;
+import com.bugtracker.backend.model.Bug;
+import com.bugtracker.backend.model.BugEmbedding;
+import com.bugtracker.backend.payload.response.AIAnalysisResponse;
+import com.bugtracker.backend.repository.AIAnalysisRepository;
+import com.bugtracker.backend.repository.BackfillJobRepository;
+import com.bugtracker.backend.repository.BugEmbeddingRepository;
+import com.bugtracker.backend.repository.BugRepository;
+import com.bugtracker.backend.search.LocalSimilarityIndex;
+import com.bugtracker.backend.search.QuantizedVector;
+import com.bugtracker.backend.search.RemoteEmbeddingIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Re-analyzes existing bugs with the remote model after a model upgrade.
+ * Bugs are scanned in keyset-ordered chunks; each chunk is sent to the AI service with
+ * bounded concurrency and a request-rate cap, and its results are written in one transaction
+ * together with the job checkpoint: the embedding (searched by the "remote" similarity
+ * backend through {@link RemoteEmbeddingIndex}), an ai_analysis row for the target model
+ * version, and refreshed AI-derived severity, priority and tags. Results from any other model
+ * version are counted as failed. Only one job runs at a time, and a job that was running
+ * when the application stopped resumes on startup.
+ */
+@Service
+public class EmbeddingBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingBackfillService.class);
+    private static final int MAX_CONSECUTIVE_FAILED_CHUNKS = 5;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private BugEmbeddingRepository bugEmbeddingRepository;
+
+    @Autowired
+    private AIAnalysisRepository aiAnalysisRepository;
+
+    @Autowired
+    private BackfillJobRepository backfillJobRepository;
+
+    @Autowired
+    private RemoteEmbeddingIndex remoteEmbeddingIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AIServiceClient aiServiceClient;
+
+    @Autowired
+    private AIWorkScheduler workScheduler;
+
+    @Autowired
+    private AIHealthMonitor healthMonitor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${ai.backfill.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${ai.backfill.concurrency:4}")
+    private int concurrency;
+
+    @Value("${ai.backfill.requests-per-second:10}")
+    private double requestsPerSecond;
+
+    @Value("${ai.backfill.retry-delay-ms:30000}")
+    private long retryDelayMs;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(daemon("ai-backfill"));
+    private ExecutorService callers;
+    private volatile Long activeJobId;
+    private volatile boolean pauseRequested;
+    // Earliest time the next AI call may start; spaces calls evenly at the configured rate
+    private final Object rateLock = new Object();
+    private long nextCallNanos = System.nanoTime();
+
+    /**
+     * Remote analysis of a bug, for the text it had when its chunk was read
+     */
+    private static final class Analyzed {
+        final Bug bug;
+        final AIAnalysisResponse analysis;
+
+        Analyzed(Bug bug, AIAnalysisResponse analysis) {
+            this.bug = bug;
+            this.analysis = analysis;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        callers = Executors.newFixedThreadPool(Math.max(1, concurrency), daemon("ai-backfill-call"));
+        backfillJobRepository.findByStatus(BackfillJob.Status.RUNNING).stream()
+            .max(Comparator.comparing(BackfillJob::getId))
+            .ifPresent(job -> {
+                logger.info("Resuming backfill job {} after bug {}", job.getId(), job.getLastBugId());
+                submit(job.getId());
+            });
+    }
+
+    public synchronized BackfillJob start(String targetModelVersion) {
+        if (activeJobId != null) {
+            throw new IllegalStateException("Backfill job " + activeJobId + " is already running");
+        }
+        BackfillJob job = backfillJobRepository.save(BackfillJob.builder()
+            .targetModelVersion(targetModelVersion)
+            .status(BackfillJob.Status.RUNNING)
+            .totalBugs(bugRepository.count())
+            .startedAt(LocalDateTime.now())
+            .updatedAt(LocalDateTime.now())
+            .build());
+        submit(job.getId());
+        return job;
+    }
+
+    /**
+     * Stop after the chunk in flight; progress up to it is kept
+     */
+    public synchronized BackfillJob pause(Long jobId) {
+        BackfillJob job = find(jobId);
+        if (jobId.equals(activeJobId)) {
+            pauseRequested = true;
+        }
+        return job;
+    }
+
+    public synchronized BackfillJob resume(Long jobId) {
+        BackfillJob job = find(jobId);
+        if (activeJobId != null) {
+            throw new IllegalStateException("Backfill job " + activeJobId + " is already running");
+        }
+        if (job.getStatus() == BackfillJob.Status.COMPLETED) {
+            return job;
+        }
+        job.setStatus(BackfillJob.Status.RUNNING);
+        job.setLastError(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        backfillJobRepository.save(job);
+        submit(jobId);
+        return job;
+    }
+
+    public List<BackfillJob> listJobs() {
+        return backfillJobRepository.findAllByOrderByIdDesc();
+    }
+
+    private BackfillJob find(Long jobId) {
+        return backfillJobRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("Backfill job not found"));
+    }
+
+    private void submit(Long jobId) {
+        activeJobId = jobId;
+        pauseRequested = false;
+        runner.execute(() -> {
+            try {
+                run(jobId);
+            } catch (RuntimeException e) {
+                logger.error("Backfill job {} failed: {}", jobId, e.getMessage());
+                finish(jobId, BackfillJob.Status.FAILED, e.getMessage());
+            } finally {
+                activeJobId = null;
+            }
+        });
+    }
+
+    private void run(Long jobId) {
+        int failedChunks = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            BackfillJob job = find(jobId);
+            if (pauseRequested) {
+                finish(jobId, BackfillJob.Status.PAUSED, null);
+                return;
+            }
+            List<Bug> chunk = bugRepository.findChunkAfter(job.getLastBugId(), PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                finish(jobId, BackfillJob.Status.COMPLETED, null);
+                logger.info("Backfill job {} completed: {} re-embedded, {} skipped, {} failed",
+                    jobId, job.getProcessed(), job.getSkipped(), job.getFailed());
+                return;
+            }
+
+            Map<Long, BugEmbedding> current = bugEmbeddingRepository
+                .findAllById(chunk.stream().map(Bug::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(BugEmbedding::getBugId, Function.identity()));
+            List<Bug> stale = chunk.stream()
+                .filter(bug -> {
+                    BugEmbedding embedding = current.get(bug.getId());
+                    return embedding == null || !job.getTargetModelVersion().equals(embedding.getModelVersion());
+                })
+                .collect(Collectors.toList());
+
+            List<CompletableFuture<Analyzed>> calls = stale.stream()
+                .map(bug -> CompletableFuture.supplyAsync(() -> analyze(bug), callers))
+                .collect(Collectors.toList());
+            List<Analyzed> answered = calls.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+            // Another model (e.g. a rollout still in progress) must not be stored as the target version
+            List<Analyzed> results = answered.stream()
+                .filter(result -> job.getTargetModelVersion().equals(result.analysis.getModelVersion()))
+                .collect(Collectors.toList());
+
+            int failed = stale.size() - results.size();
+            if (!answered.isEmpty() && results.isEmpty()) {
+                String served = answered.get(0).analysis.getModelVersion();
+                finish(jobId, BackfillJob.Status.FAILED,
+                    "AI service returned model version " + served + ", expected " + job.getTargetModelVersion());
+                return;
+            }
+            if (!stale.isEmpty() && results.isEmpty()) {
+                // Nothing came back: the service is likely down, so retry this chunk instead of skipping it
+                if (++failedChunks >= MAX_CONSECUTIVE_FAILED_CHUNKS) {
+                    finish(jobId, BackfillJob.Status.FAILED, "AI service unavailable after " + failedChunks + " attempts");
+                    return;
+                }
+                sleep(retryDelayMs);
+                continue;
+            }
+            failedChunks = 0;
+            long lastBugId = chunk.get(chunk.size() - 1).getId();
+            saveChunk(jobId, results, lastBugId, stale.size() - failed, chunk.size() - stale.size(), failed);
+        }
+    }
+
+    private Analyzed analyze(Bug bug) {
+        if (!healthMonitor.isAvailable()) {
+            // Fails the chunk fast; it is retried after the retry delay
+            return null;
+        }
+        awaitRateLimit();
+        String text = LocalSimilarityIndex.textOf(bug);
+        AIServiceClient.ComprehensiveAnalysisResponse response;
+        try {
+            response = workScheduler.submit(AIWorkScheduler.WorkClass.BATCH,
+                () -> healthMonitor.track(() -> aiServiceClient.getComprehensiveAnalysis(text))).join();
+        } catch (CompletionException e) {
+            // Shed by the scheduler in favour of interactive traffic; counted as failed
+            return null;
+        }
+        if (response == null || response.getEmbedding() == null || response.getEmbedding().length == 0) {
+            return null;
+        }
+        return new Analyzed(bug, TieredBugAnalysisService.toAnalysis(response));
+    }
+
+    /**
+     * Write a chunk's embeddings, analyses and refreshed bug fields and advance the checkpoint
+     * in one transaction. Bugs deleted or edited since the chunk was read are skipped; an edit
+     * fetches its own analysis.
+     */
+    private void saveChunk(Long jobId, List<Analyzed> results, long lastBugId,
+                           long processed, long skipped, long failed) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = results.stream().map(result -> result.bug.getId()).collect(Collectors.toList());
+            Map<Long, Bug> bugs = bugRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Bug::getId, Function.identity()));
+            // Existing rows become managed and are updated in place; new rows are batch-inserted
+            Map<Long, BugEmbedding> embeddings = bugEmbeddingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(BugEmbedding::getBugId, Function.identity()));
+            Map<Long, List<AIAnalysis>> analyses = aiAnalysisRepository.findByBugIdIn(ids).stream()
+                .collect(Collectors.groupingBy(AIAnalysis::getBugId));
+            List<BugEmbedding> embeddingInserts = new ArrayList<>();
+            List<AIAnalysis> analysisInserts = new ArrayList<>();
+            long unchanged = 0;
+            for (Analyzed result : results) {
+                Bug bug = bugs.get(result.bug.getId());
+                if (bug == null || !LocalSimilarityIndex.textOf(bug).equals(LocalSimilarityIndex.textOf(result.bug))) {
+                    unchanged++;
+                    continue;
+                }
+                List<AIAnalysis> previous = analyses.getOrDefault(bug.getId(), Collections.emptyList());
+                refreshBug(bug, result.analysis, previous);
+                saveEmbedding(bug.getId(), result.analysis, embeddings.get(bug.getId()), embeddingInserts);
+                saveAnalysis(bug.getId(), result.analysis, previous, analysisInserts);
+            }
+            bugEmbeddingRepository.saveAll(embeddingInserts);
+            aiAnalysisRepository.saveAll(analysisInserts);
+
+            BackfillJob job = find(jobId);
+            job.setLastBugId(lastBugId);
+            job.setProcessed(job.getProcessed() + processed - unchanged);
+            job.setSkipped(job.getSkipped() + skipped + unchanged);
+            job.setFailed(job.getFailed() + failed);
+            job.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    /**
+     * Take over AI-derived severity, priority and tags: a value is replaced when it is empty or
+     * still what the latest earlier analysis suggested, so values a person set are kept
+     */
+    private void refreshBug(Bug bug, AIAnalysisResponse analysis, List<AIAnalysis> previous) {
+        AIAnalysis latest = previous.stream()
+            .max(Comparator.comparing(AIAnalysis::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+            .orElse(null);
+        Bug before = BugEvent.snapshot(bug);
+        bug.setSeverity(refreshed(bug.getSeverity(), latest != null ? latest.getSeverity() : null, analysis.getSeverity()));
+        bug.setPriority(refreshed(bug.getPriority(), latest != null ? latest.getPriority() : null, analysis.getPriority()));
+        String tags = analysis.getTags() != null && !analysis.getTags().isEmpty() ? String.join(", ", analysis.getTags()) : null;
+        bug.setTags(refreshed(bug.getTags(), latest != null ? latest.getTags() : null, tags));
+        if (!Objects.equals(before.getSeverity(), bug.getSeverity())
+                || !Objects.equals(before.getPriority(), bug.getPriority())
+                || !Objects.equals(before.getTags(), bug.getTags())) {
+            bug.setUpdatedAt(LocalDateTime.now());
+            // Filter bitmaps and the other indexes follow the change once the chunk commits
+            eventPublisher.publishEvent(new BugUpdatedEvent(before, bug));
+        }
+    }
+
+    private static String refreshed(String current, String previousSuggestion, String suggestion) {
+        if (suggestion == null || suggestion.isEmpty()) {
+            return current;
+        }
+        if (current == null || current.isEmpty() || current.equals(previousSuggestion)) {
+            return suggestion;
+        }
+        return current;
+    }
+
+    private void saveEmbedding(Long bugId, AIAnalysisResponse analysis, BugEmbedding row, List<BugEmbedding> inserts) {
+        QuantizedVector quantized = QuantizedVector.quantize(analysis.getEmbedding());
+        if (row == null) {
+            row = BugEmbedding.builder().bugId(bugId).build();
+            inserts.add(row);
+        }
+        row.setModelVersion(analysis.getModelVersion());
+        row.setDimensions(quantized.getDimensions());
+        row.setScale(quantized.getScale());
+        row.setOffset(quantized.getOffset());
+        row.setCodes(quantized.getCodes());
+        row.setVector(RemoteEmbeddingIndex.toBytes(analysis.getEmbedding()));
+        row.setUpdatedAt(LocalDateTime.now());
+        remoteEmbeddingIndex.putAfterCommit(bugId, analysis.getModelVersion(), quantized);
+    }
+
+    private void saveAnalysis(Long bugId, AIAnalysisResponse analysis, List<AIAnalysis> previous, List<AIAnalysis> inserts) {
+        AIAnalysis row = previous.stream()
+            .filter(existing -> analysis.getModelVersion().equals(existing.getModelVersion()))
+            .findFirst()
+            .orElse(null);
+        if (row == null) {
+            row = AIAnalysis.builder().bugId(bugId).modelVersion(analysis.getModelVersion()).build();
+            inserts.add(row);
+        }
+        row.setSeverity(analysis.getSeverity());
+        row.setPriority(analysis.getPriority());
+        row.setTags(analysis.getTags() != null ? String.join(", ", analysis.getTags()) : null);
+        row.setSummary(analysis.getSummary());
+        row.setConfidence(analysis.getConfidence());
+        row.setNeedsReview(analysis.getNeedsReview());
+        row.setCreatedAt(LocalDateTime.now());
+        row.setReviewedAt(null);
+    }
+
+    private void finish(Long jobId, BackfillJob.Status status, String error) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            BackfillJob job = find(jobId);
+            job.setStatus(status);
+            job.setLastError(error);
+            job.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    private void awaitRateLimit() {
+        long waitNanos;
+        synchronized (rateLock) {
+            long now = System.nanoTime();
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(requestsPerSecond, 0.001));
+            nextCallNanos = Math.max(nextCallNanos, now) + interval;
+            waitNanos = nextCallNanos - interval - now;
+        }
+        if (waitNanos > 0) {
+            sleep(TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        if (callers != null) {
+            callers.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package com.bugtracker.backend.service;
+
+import com.bugtracker.backend.model.ERole;
+import com.bugtracker.backend.model.Role;
+import com.bugtracker.backend.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * In-memory registry of the fixed set of {@link Role} rows.
+ * Roles are loaded once (after {@link com.bugtracker.backend.config.DataInitializer} has seeded them)
+ * into an immutable EnumMap, so signup and principal building never query the roles table.
+ */
+@Component
+public class RoleRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private static final Map<ERole, GrantedAuthority> AUTHORITIES;
+
+    static {
+        EnumMap<ERole, GrantedAuthority> authorities = new EnumMap<>(ERole.class);
+        for (ERole role : ERole.values()) {
+            authorities.put(role, new SimpleGrantedAuthority(role.name()));
+        }
+        AUTHORITIES = Collections.unmodifiableMap(authorities);
+    }
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<ERole, Role> roles = Collections.emptyMap();
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    /**
+     * Reload all roles from the database and atomically publish the new snapshot
+     */
+    public synchronized void refresh() {
+        EnumMap<ERole, Role> loaded = new EnumMap<>(ERole.class);
+        for (Role role : roleRepository.findAll()) {
+            loaded.put(role.getName(), role);
+        }
+        this.roles = Collections.unmodifiableMap(loaded);
+        logger.info("RoleRegistry loaded {} roles", loaded.size());
+    }
+
+    /**
+     * Get the persisted role for the given name
+     * @throws RuntimeException if the role has not been seeded
+     */
+    public Role get(ERole name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            // Roles may have been seeded after the last refresh; reload once before failing
+            refresh();
+            role = roles.get(name);
+        }
+        if (role == null) {
+            throw new RuntimeException("Error: Role is not found.");
+        }
+        return role;
+    }
+
+    public boolean contains(ERole name) {
+        return roles.containsKey(name);
+    }
+
+    /**
+     * Shared, immutable authority instance for a role
+     */
+    public static GrantedAuthority authorityOf(ERole name) {
+        return AUTHORITIES.get(name);
+    }
+}
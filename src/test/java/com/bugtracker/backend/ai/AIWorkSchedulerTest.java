@@ -0,0 +1,134 @@
+package com.bugtracker.backend.ai;
+
+import com.bugtracker.backend.ai.AIWorkScheduler.WorkClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIWorkSchedulerTest {
+
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private AIWorkScheduler scheduler;
+
+    @AfterEach
+    void stop() {
+        gate.countDown();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    private AIWorkScheduler scheduler(int maxConcurrency, int[] weights, int[] limits) {
+        scheduler = new AIWorkScheduler(maxConcurrency, weights, limits,
+            new int[] {100, 100, 100}, new long[] {5000, 5000, 5000});
+        return scheduler;
+    }
+
+    /**
+     * Work that holds its slot until the test opens the gate
+     */
+    private String blocked() {
+        try {
+            gate.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchWorkNeverTakesTheInteractiveHeadroom() throws Exception {
+        AIWorkScheduler scheduler = scheduler(4, new int[] {8, 3, 1}, new int[] {4, 2, 1});
+        List<CompletableFuture<String>> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(scheduler.submit(WorkClass.BATCH, this::blocked));
+        }
+
+        Map<String, Object> lane = (Map<String, Object>) scheduler.getStats().get("batch");
+        assertEquals(1, lane.get("running"));
+        assertEquals(4, lane.get("queued"));
+        // Interactive calls still find free slots while the batch backlog waits
+        assertEquals("ok", scheduler.submit(WorkClass.INTERACTIVE, () -> "ok").get(5, TimeUnit.SECONDS));
+
+        gate.countDown();
+        for (CompletableFuture<String> future : batch) {
+            assertEquals("done", future.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void expiredHeadsFailWithoutRunning() throws Exception {
+        AIWorkScheduler scheduler = scheduler(1, new int[] {8, 3, 1}, new int[] {1, 1, 1});
+        CompletableFuture<String> holder = scheduler.submit(WorkClass.INTERACTIVE, this::blocked);
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<String> late = scheduler.submit(WorkClass.BATCH, () -> {
+            ran.set(true);
+            return "late";
+        }, 1);
+
+        Thread.sleep(20);
+        gate.countDown();
+        assertEquals("done", holder.get(5, TimeUnit.SECONDS));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertFalse(ran.get());
+        assertEquals(1L, ((Map<?, ?>) scheduler.getStats().get("batch")).get("expired"));
+    }
+
+    @Test
+    void queuedWorkFailsAtItsDeadlineWhileTheSlotsStayBusy() throws Exception {
+        AIWorkScheduler scheduler = scheduler(1, new int[] {8, 3, 1}, new int[] {1, 1, 1});
+        CompletableFuture<String> holder = scheduler.submit(WorkClass.INTERACTIVE, this::blocked);
+        CompletableFuture<String> late = scheduler.submit(WorkClass.BATCH, () -> "late", 50);
+
+        // The gate is still closed, so no slot is released before the deadline fires
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> late.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertFalse(holder.isDone());
+        Map<?, ?> lane = (Map<?, ?>) scheduler.getStats().get("batch");
+        assertEquals(0, lane.get("queued"));
+        assertEquals(1L, lane.get("expired"));
+    }
+
+    @Test
+    void freeSlotsFollowTheWeights() throws Exception {
+        AIWorkScheduler scheduler = scheduler(1, new int[] {3, 1, 1}, new int[] {1, 1, 1});
+        CompletableFuture<String> holder = scheduler.submit(WorkClass.INTERACTIVE, this::blocked);
+        List<WorkClass> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<WorkClass>> queued = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            queued.add(scheduler.submit(WorkClass.INTERACTIVE, () -> record(order, WorkClass.INTERACTIVE)));
+            queued.add(scheduler.submit(WorkClass.BATCH, () -> record(order, WorkClass.BATCH)));
+        }
+
+        gate.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<WorkClass> future : queued) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        // One slot, both lanes backlogged: three interactive starts for every batch start
+        List<WorkClass> firstEight = order.subList(0, 8);
+        assertEquals(6, Collections.frequency(firstEight, WorkClass.INTERACTIVE), order.toString());
+        assertEquals(2, Collections.frequency(firstEight, WorkClass.BATCH), order.toString());
+    }
+
+    private static WorkClass record(List<WorkClass> order, WorkClass workClass) {
+        order.add(workClass);
+        return workClass;
+    }
+}
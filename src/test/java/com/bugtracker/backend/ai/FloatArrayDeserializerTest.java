@@ -0,0 +1,59 @@
+package com.bugtracker.backend.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloatArrayDeserializerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static class Holder {
+        @JsonDeserialize(using = FloatArrayDeserializer.class)
+        public float[] embedding;
+    }
+
+    private static float[] read(String json) throws JsonProcessingException {
+        return MAPPER.readValue("{\"embedding\":" + json + "}", Holder.class).embedding;
+    }
+
+    @Test
+    void floatsAndIntegersAreRead() throws Exception {
+        assertArrayEquals(new float[] {0.25f, -1.5f, 3f, 0f, 1e-3f}, read("[0.25, -1.5, 3, 0, 1e-3]"));
+    }
+
+    @Test
+    void emptyArrayAndNullAreKept() throws Exception {
+        assertEquals(0, read("[]").length);
+        assertNull(read("null"));
+        // Null elements read as zero
+        assertArrayEquals(new float[] {1f, 0f, 2f}, read("[1, null, 2]"));
+    }
+
+    @Test
+    void arraysGrowPastTheScratchBuffer() throws Exception {
+        // Past the initial 1024 and past the largest retained scratch buffer
+        for (int size : new int[] {1025, 70_000, 3}) {
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; i < size; i++) {
+                json.append(i > 0 ? "," : "").append(i * 0.5);
+            }
+            float[] values = read(json.append(']').toString());
+            assertEquals(size, values.length);
+            assertEquals(0f, values[0]);
+            assertEquals((size - 1) * 0.5f, values[size - 1]);
+        }
+    }
+
+    @Test
+    void malformedInputIsRejected() {
+        assertThrows(MismatchedInputException.class, () -> read("[0.1, \"x\"]"));
+        assertThrows(MismatchedInputException.class, () -> read("[[0.1]]"));
+        assertThrows(MismatchedInputException.class, () -> read("\"0.1, 0.2\""));
+        assertThrows(JsonProcessingException.class, () -> MAPPER.readValue("{\"embedding\":[0.1, 0.2", Holder.class));
+    }
+}
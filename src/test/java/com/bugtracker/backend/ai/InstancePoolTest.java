@@ -0,0 +1,75 @@
+package com.bugtracker.backend.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstancePoolTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    private InstancePool<Integer> pool(int size, long borrowTimeoutMs) {
+        return new InstancePool<>(size, borrowTimeoutMs, created::incrementAndGet);
+    }
+
+    @Test
+    void borrowTimesOutWhenEveryInstanceIsOut() {
+        InstancePool<Integer> pool = pool(2, 20);
+
+        Integer first = pool.borrow();
+        Integer second = pool.borrow();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotEquals(first, second);
+        assertNull(pool.borrow());
+
+        pool.release(first);
+        assertEquals(first, pool.borrow());
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void closeClosesIdleAndBorrowedInstancesOnce() {
+        InstancePool<Integer> pool = pool(3, 20);
+        pool.borrow();
+        List<Integer> closed = new ArrayList<>();
+
+        long start = System.nanoTime();
+        pool.close(50, closed::add);
+
+        assertTrue(System.nanoTime() - start >= 50_000_000L, "waits for the borrowed instance");
+        assertEquals(List.of(1, 2, 3), closed);
+        assertNull(pool.borrow());
+    }
+
+    @Test
+    void closeWaitsForAReturnWithinTheGracePeriod() {
+        InstancePool<Integer> pool = pool(1, 20);
+        Integer borrowed = pool.borrow();
+        List<Integer> closed = new ArrayList<>();
+
+        CompletableFuture<Void> returning = CompletableFuture.runAsync(() -> {
+            sleep(20);
+            pool.release(borrowed);
+        });
+        long start = System.nanoTime();
+        pool.close(5000, closed::add);
+        returning.join();
+
+        assertTrue(System.nanoTime() - start < 4_000_000_000L, "returns as soon as the instance is back");
+        assertEquals(List.of(borrowed), closed);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
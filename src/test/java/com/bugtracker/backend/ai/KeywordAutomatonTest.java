@@ -0,0 +1,52 @@
+package com.bugtracker.backend.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordAutomatonTest {
+
+    private static List<Integer> scan(KeywordAutomaton automaton, String text) {
+        List<Integer> ids = new ArrayList<>();
+        automaton.scan(text, ids::add);
+        return ids;
+    }
+
+    @Test
+    void overlappingKeywordsAreBothReported() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("null pointer", "pointer"));
+
+        assertEquals(List.of(0, 1), scan(automaton, "a null pointer in login"));
+        assertEquals(List.of(1), scan(automaton, "the pointer is dangling"));
+        assertEquals(List.of(1, 1), scan(automaton, "pointer to a pointer"));
+        assertTrue(scan(automaton, "null reference").isEmpty());
+    }
+
+    @Test
+    void outputsAreInheritedThroughFailureLinks() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("he", "she", "his", "hers"));
+
+        // "she" ends on the same character as "he", reachable only by the failure link
+        assertEquals(List.of(1, 0, 3), scan(automaton, "ushers"));
+        assertEquals(List.of(2), scan(automaton, "ahis"));
+    }
+
+    @Test
+    void matchingIgnoresCaseIncludingNonAscii() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("Überlauf", "échec", "Timeout"));
+
+        assertEquals(List.of(0), scan(automaton, "PUFFER-ÜBERLAUF beim Export"));
+        assertEquals(List.of(1), scan(automaton, "ÉCHEC de connexion"));
+        assertEquals(List.of(2), scan(automaton, "gateway TIMEOUT"));
+        // A character outside every keyword breaks a partial match
+        assertTrue(scan(automaton, "überöauf").isEmpty());
+    }
+
+    @Test
+    void emptyKeywordsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new KeywordAutomaton(List.of("crash", "")));
+    }
+}
@@ -0,0 +1,81 @@
+package com.bugtracker.backend.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TriageRuleEngineTest {
+
+    private static TriageRule rule(String keyword, String priority, String severity, String tag, double weight) {
+        return new TriageRule(keyword, priority, severity, tag, weight, null);
+    }
+
+    @Test
+    void nothingMatchedLeavesEveryDimensionEmpty() {
+        TriageRuleEngine engine = new TriageRuleEngine(List.of(rule("crash", "High", "Critical", "crash", 1)));
+
+        TriageResult result = engine.evaluate("Typo on the about page");
+
+        assertNull(result.getPriority());
+        assertNull(result.getSeverity());
+        assertEquals(0.0, result.getConfidence());
+        assertEquals(0, result.getMatchedRules());
+        assertTrue(result.getTags().isEmpty());
+    }
+
+    @Test
+    void rulesSharingAKeywordAllFire() {
+        TriageRuleEngine engine = new TriageRuleEngine(List.of(
+            new TriageRule("crash", "High", null, "crash", 1, "Check the stack trace"),
+            new TriageRule("Crash", null, "Critical", "stability", 1, "Check the crash reporter")));
+
+        TriageResult result = engine.evaluate("App CRASH on start, then another crash");
+        assertEquals(2, result.getMatchedRules());
+        assertEquals("High", result.getPriority());
+        assertEquals("Critical", result.getSeverity());
+        assertEquals(List.of("crash", "stability"), result.getTags());
+        assertEquals(List.of("Check the stack trace", "Check the crash reporter"), result.getSuggestions());
+    }
+
+    @Test
+    void repeatedKeywordsVoteOnce() {
+        TriageRuleEngine engine = new TriageRuleEngine(List.of(
+            rule("timeout", "Low", null, null, 1),
+            rule("data loss", "High", null, null, 1.5)));
+
+        // Three timeouts still weigh 1 against the single 1.5 vote
+        assertEquals("High", engine.evaluate("timeout, timeout, timeout and data loss").getPriority());
+    }
+
+    @Test
+    void heavierVoteWinsAndTiesGoToTheEarlierLabel() {
+        TriageRuleEngine engine = new TriageRuleEngine(List.of(
+            rule("crash", "High", "Major", null, 1),
+            rule("typo", "Low", "Minor", null, 1),
+            rule("data loss", null, "Minor", null, 2)));
+
+        TriageResult tied = engine.evaluate("typo, then a crash");
+        assertEquals("High", tied.getPriority());
+        assertEquals("Major", tied.getSeverity());
+
+        TriageResult weighted = engine.evaluate("crash with data loss");
+        assertEquals("High", weighted.getPriority());
+        assertEquals("Minor", weighted.getSeverity());
+    }
+
+    @Test
+    void confidenceGrowsWithAgreementAndEvidence() {
+        TriageRuleEngine engine = new TriageRuleEngine(List.of(
+            rule("crash", "High", "Critical", null, 1),
+            rule("stack trace", "High", "Critical", null, 1),
+            rule("typo", "Low", "Minor", null, 1)));
+
+        // One vote is half the saturation weight
+        assertEquals(0.5, engine.evaluate("crash").getConfidence(), 1e-9);
+        assertEquals(1.0, engine.evaluate("crash with a stack trace").getConfidence(), 1e-9);
+        // Split vote: the winner holds half of a saturated total
+        assertEquals(0.5, engine.evaluate("crash and a typo").getConfidence(), 1e-9);
+    }
+}
@@ -0,0 +1,74 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.model.Bug;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Bm25IndexTest {
+
+    private static Bug bug(long id, String title, String description) {
+        return Bug.builder().id(id).title(title).description(description).build();
+    }
+
+    private static Bm25Index index() {
+        Bm25Index index = new Bm25Index();
+        index.rebuild(List.of(
+            bug(1, "NullPointerException in login", "The login form throws a NullPointerException when the password is empty"),
+            bug(2, "Slow dashboard", "The dashboard takes ten seconds to load for large projects"),
+            bug(3, "Export fails", "CSV export of the bug list fails with a timeout")));
+        return index;
+    }
+
+    @Test
+    void stopwordsAreNotIndexed() {
+        Map<String, Integer> terms = Bm25Index.termFrequencies("The login is broken and it fails in the form");
+
+        assertFalse(terms.containsKey("the"));
+        assertFalse(terms.containsKey("is"));
+        assertFalse(terms.containsKey("and"));
+        assertEquals(1, terms.get("login"));
+        assertEquals(1, terms.get("fails"));
+    }
+
+    @Test
+    void queryOfOnlyStopwordsFindsNothing() {
+        assertTrue(index().search("the of and is", 10).isEmpty());
+    }
+
+    @Test
+    void scoresAreNormalizedAndBestFirst() {
+        List<ScoredId> hits = index().search("NullPointerException login", 10);
+
+        assertEquals(1L, hits.get(0).getId());
+        for (ScoredId hit : hits) {
+            assertTrue(hit.getScore() > 0 && hit.getScore() <= 1.0, "score " + hit.getScore());
+        }
+    }
+
+    @Test
+    void floorDropsWeakMatches() {
+        Bm25Index index = index();
+        String query = "dashboard export login timeout password projects seconds csv list form";
+
+        List<ScoredId> all = index.search(query, 10, 0.0, null);
+        List<ScoredId> floored = index.search(query, 10, 0.5, null);
+
+        assertEquals(3, all.size());
+        assertTrue(floored.isEmpty(), "each bug matches only part of the query");
+    }
+
+    @Test
+    void ineligibleBugsAreSkipped() {
+        IdBitmap eligible = new IdBitmap();
+        eligible.add(2);
+
+        List<ScoredId> hits = index().search("login dashboard", 10, 0.0, eligible);
+
+        assertEquals(1, hits.size());
+        assertEquals(2L, hits.get(0).getId());
+    }
+}
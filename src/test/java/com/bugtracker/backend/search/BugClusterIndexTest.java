@@ -0,0 +1,90 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.ai.HashingEmbedder;
+import com.bugtracker.backend.model.Bug;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BugClusterIndexTest {
+
+    private static BugClusterIndex index(String... resolvedStatuses) {
+        return new BugClusterIndex(new HashingEmbedder(256), resolvedStatuses, 4, 64, 20, 0.3);
+    }
+
+    private static Bug bug(long id, String title, String status) {
+        return Bug.builder().id(id).title(title).description(title).status(status).assignee("dev" + id).build();
+    }
+
+    private static List<Bug> bugs() {
+        List<Bug> bugs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bugs.add(bug(i, "Login page crashes on submit with password reset token " + i, i % 2 == 0 ? "Fixed" : "Open"));
+            bugs.add(bug(100 + i, "CSV export of the invoice report times out " + i, "Open"));
+        }
+        return bugs;
+    }
+
+    @Test
+    void everyBugIsInTheClusterItReports() {
+        BugClusterIndex index = index("Fixed");
+        index.rebuild(bugs());
+        index.index(bug(200, "Login page crashes on submit again", "Open"));
+        index.remove(105);
+
+        for (Bug bug : bugs()) {
+            BugClusterIndex.Cluster cluster = index.getClusterOf(bug.getId(), 100);
+            if (bug.getId() == 105) {
+                assertNull(cluster);
+            } else {
+                assertTrue(cluster.getBugIds().contains(bug.getId()), "bug " + bug.getId());
+            }
+        }
+        int total = index.getClusters(100).stream().mapToInt(BugClusterIndex.Cluster::getSize).sum();
+        assertEquals(20, total);
+    }
+
+    @Test
+    void unrelatedBugsNeverShareAClusterAfterRefit() {
+        BugClusterIndex index = index("Fixed");
+        index.rebuild(bugs());
+        index.index(bug(200, "Login page crashes on submit with password reset token", "Open"));
+        index.refit();
+
+        // Login bugs are 0-9 and 200, export bugs 100-109
+        for (BugClusterIndex.Cluster cluster : index.getClusters(100)) {
+            long exports = cluster.getBugIds().stream().filter(id -> id >= 100 && id < 200).count();
+            assertTrue(exports == 0 || exports == cluster.getSize(), cluster.getBugIds().toString());
+        }
+        assertTrue(index.getClusterOf(200, 100).getBugIds().stream().noneMatch(id -> id >= 100 && id < 200));
+    }
+
+    @Test
+    void suggestionsComeFromResolvedBugsInTheNearestCluster() {
+        BugClusterIndex index = index("Fixed");
+        index.rebuild(bugs());
+
+        List<String> suggestions = index.suggestSolutions("Login page crashes on submit", 10);
+        // The refit may split a topic, so only some of its five resolved bugs can share the query's cluster
+        assertFalse(suggestions.isEmpty());
+        assertTrue(suggestions.size() <= 5);
+        assertTrue(suggestions.stream().allMatch(s -> s.contains("Login page")), suggestions.toString());
+
+        List<String> excluding = index.suggestSolutions("Login page crashes on submit with password reset token 0", 0L, 10);
+        assertTrue(excluding.stream().noneMatch(s -> s.contains("#0 ")), excluding.toString());
+    }
+
+    @Test
+    void resolvedStatusesAreConfiguredForClusteringAlone() {
+        BugClusterIndex index = index("Shipped");
+        index.rebuild(List.of(bug(1, "Login page crashes on submit", "Shipped"),
+            bug(2, "Login page crashes on submit twice", "Fixed")));
+
+        List<String> suggestions = index.suggestSolutions("Login page crashes on submit", 10);
+        assertEquals(1, suggestions.size());
+        assertTrue(suggestions.get(0).contains("#1 "));
+    }
+}
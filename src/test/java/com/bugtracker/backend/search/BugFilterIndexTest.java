@@ -0,0 +1,97 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.model.Bug;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BugFilterIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    /**
+     * 10000 bugs over two id chunks, 9000 in the first: every other one open (a bitmap
+     * container there), every tenth critical (array containers), one per day
+     */
+    private static BugFilterIndex index() {
+        List<Bug> bugs = new ArrayList<>();
+        for (long i = 0; i < 10000; i++) {
+            long id = i < 9000 ? i : 70000 + i;
+            bugs.add(Bug.builder()
+                .id(id)
+                .status(i % 2 == 0 ? "Open" : "Closed")
+                .severity(i % 10 == 0 ? "Critical" : "Minor")
+                .createdAt(START.plusDays(i))
+                .build());
+        }
+        BugFilterIndex index = new BugFilterIndex();
+        index.rebuild(bugs);
+        return index;
+    }
+
+    private static BugFilter filter(String status, String severity, LocalDate from, LocalDate to) {
+        return new BugFilter(status, null, severity, null, from, to);
+    }
+
+    @Test
+    void emptyFilterMeansEveryBug() {
+        assertNull(index().resolve(null));
+        assertNull(index().resolve(new BugFilter()));
+    }
+
+    @Test
+    void clausesIntersectAcrossChunksAndContainerTypes() {
+        IdBitmap eligible = index().resolve(filter("OPEN", "critical", null, null));
+
+        assertEquals(1000, eligible.cardinality());
+        assertTrue(eligible.contains(0));
+        assertTrue(eligible.contains(70000 + 9000));
+        assertFalse(eligible.contains(5));
+        assertFalse(eligible.contains(70000 + 9002));
+    }
+
+    @Test
+    void createdRangeIsInclusive() {
+        LocalDate day = START.toLocalDate();
+        IdBitmap eligible = index().resolve(filter(null, null, day.plusDays(8998), day.plusDays(9001)));
+
+        assertEquals(4, eligible.cardinality());
+        assertTrue(eligible.contains(8999));
+        assertTrue(eligible.contains(70000 + 9000));
+        assertTrue(eligible.contains(70000 + 9001));
+    }
+
+    @Test
+    void unknownValueOrInvertedRangeMatchesNothing() {
+        LocalDate day = START.toLocalDate();
+
+        assertTrue(index().resolve(filter("Reopened", null, null, null)).isEmpty());
+        assertTrue(index().resolve(filter(null, null, day.plusDays(5), day)).isEmpty());
+    }
+
+    @Test
+    void reindexMovesBugBetweenBitmaps() {
+        BugFilterIndex index = index();
+        index.index(Bug.builder().id(0L).status("Closed").severity("Minor").createdAt(START).build());
+        index.remove(70000 + 9000);
+
+        IdBitmap openCritical = index.resolve(filter("open", "critical", null, null));
+        assertEquals(998, openCritical.cardinality());
+        assertFalse(openCritical.contains(0));
+        assertTrue(index.resolve(filter("closed", null, null, null)).contains(0));
+    }
+
+    @Test
+    void resolvedBitmapIsACopy() {
+        BugFilterIndex index = index();
+        IdBitmap eligible = index.resolve(filter("open", null, null, null));
+        eligible.remove(0);
+
+        assertTrue(index.resolve(filter("open", null, null, null)).contains(0));
+    }
+}
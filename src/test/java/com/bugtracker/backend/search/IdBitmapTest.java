@@ -0,0 +1,162 @@
+package com.bugtracker.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdBitmapTest {
+
+    private static final long CHUNK = 1L << 16;
+
+    /**
+     * Container kind ("ArrayContainer" or "BitmapContainer") holding the chunk of {@code id}
+     */
+    private static String containerOf(IdBitmap bitmap, long id) throws ReflectiveOperationException {
+        Field field = IdBitmap.class.getDeclaredField("containers");
+        field.setAccessible(true);
+        Object container = ((Map<?, ?>) field.get(bitmap)).get(id >>> 16);
+        return container == null ? null : container.getClass().getSimpleName();
+    }
+
+    private static List<Long> ids(IdBitmap bitmap) {
+        List<Long> ids = new ArrayList<>();
+        bitmap.forEach(ids::add);
+        return ids;
+    }
+
+    @Test
+    void arrayBecomesBitmapPastFourThousandNinetySix() throws Exception {
+        IdBitmap bitmap = new IdBitmap();
+        for (long id = 0; id < 4096; id++) {
+            bitmap.add(id * 2);
+        }
+        assertEquals("ArrayContainer", containerOf(bitmap, 0));
+
+        bitmap.add(1);
+        assertEquals("BitmapContainer", containerOf(bitmap, 0));
+        assertEquals(4097, bitmap.cardinality());
+        assertTrue(bitmap.contains(1));
+        assertTrue(bitmap.contains(8190));
+        assertFalse(bitmap.contains(3));
+    }
+
+    @Test
+    void bitmapFallsBackToArrayAtTwoThousandFortyEight() throws Exception {
+        IdBitmap bitmap = new IdBitmap();
+        for (long id = 0; id <= 4096; id++) {
+            bitmap.add(id);
+        }
+        for (long id = 4096; id > 2048; id--) {
+            bitmap.remove(id);
+        }
+        // 2049 left: still a bitmap, which avoids flapping around the 4096 boundary
+        assertEquals("BitmapContainer", containerOf(bitmap, 0));
+
+        bitmap.remove(2048);
+        assertEquals("ArrayContainer", containerOf(bitmap, 0));
+        assertEquals(2048, bitmap.cardinality());
+        assertTrue(bitmap.contains(2047));
+        assertFalse(bitmap.contains(2048));
+
+        // Adding still works on the converted container
+        bitmap.add(60000);
+        assertTrue(bitmap.contains(60000));
+    }
+
+    @Test
+    void idsInDifferentChunksAreKeptApart() throws Exception {
+        IdBitmap bitmap = new IdBitmap();
+        bitmap.add(5);
+        bitmap.add(CHUNK + 5);
+        bitmap.add(3 * CHUNK + 5);
+        bitmap.add(CHUNK - 1);
+
+        assertEquals(4, bitmap.cardinality());
+        assertFalse(bitmap.contains(2 * CHUNK + 5));
+        assertEquals(List.of(5L, CHUNK - 1, CHUNK + 5, 3 * CHUNK + 5), ids(bitmap));
+
+        bitmap.remove(CHUNK + 5);
+        assertNull(containerOf(bitmap, CHUNK + 5), "empty chunks are dropped");
+        assertTrue(bitmap.contains(5));
+        assertTrue(bitmap.contains(3 * CHUNK + 5));
+    }
+
+    @Test
+    void andAcrossMixedContainerTypes() throws Exception {
+        IdBitmap dense = new IdBitmap();
+        IdBitmap sparse = new IdBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (long id = 0; id < 10000; id++) {
+            dense.add(id);
+            dense.add(2 * CHUNK + id);
+        }
+        for (long id = 0; id < 20000; id += 7) {
+            sparse.add(id);
+            sparse.add(CHUNK + id);
+            if (id < 10000) {
+                expected.add(id);
+            }
+        }
+        assertEquals("BitmapContainer", containerOf(dense, 0));
+        assertEquals("ArrayContainer", containerOf(sparse, 0));
+
+        IdBitmap bitmapFirst = dense.and(sparse);
+        IdBitmap arrayFirst = sparse.and(dense);
+
+        // Chunk 1 is only in sparse and chunk 2 only in dense, so neither survives
+        assertEquals(new ArrayList<>(expected), ids(bitmapFirst));
+        assertEquals(new ArrayList<>(expected), ids(arrayFirst));
+        assertEquals("ArrayContainer", containerOf(bitmapFirst, 0));
+    }
+
+    @Test
+    void andOfTwoBitmapsStaysBitmapOnlyWhenDense() throws Exception {
+        IdBitmap evens = new IdBitmap();
+        IdBitmap low = new IdBitmap();
+        IdBitmap all = new IdBitmap();
+        for (long id = 0; id < 20000; id++) {
+            if (id % 2 == 0) {
+                evens.add(id);
+            }
+            if (id < 6000) {
+                low.add(id);
+            }
+            all.add(id);
+        }
+
+        IdBitmap denseResult = evens.and(all);
+        assertEquals(10000, denseResult.cardinality());
+        assertEquals("BitmapContainer", containerOf(denseResult, 0));
+
+        IdBitmap sparseResult = evens.and(low);
+        assertEquals(3000, sparseResult.cardinality());
+        assertEquals("ArrayContainer", containerOf(sparseResult, 0));
+        assertTrue(sparseResult.contains(5998));
+        assertFalse(sparseResult.contains(5999));
+    }
+
+    @Test
+    void orInPlaceMergesMixedContainersAndLeavesTheOtherUntouched() {
+        IdBitmap target = new IdBitmap();
+        IdBitmap other = new IdBitmap();
+        target.add(1);
+        target.add(CHUNK + 1);
+        for (long id = 0; id < 5000; id++) {
+            other.add(id * 3);
+        }
+
+        target.orInPlace(other);
+        target.add(2);
+
+        assertEquals(5000 + 2 + 1, target.cardinality());
+        assertTrue(target.contains(CHUNK + 1));
+        assertFalse(other.contains(2));
+        assertEquals(5000, other.cardinality());
+    }
+}
@@ -0,0 +1,99 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.ai.HashingEmbedder;
+import com.bugtracker.backend.model.Bug;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalSimilarityIndexTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 3, 1, 9, 30, 15, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    private LocalSimilarityIndex open() throws IOException {
+        return new LocalSimilarityIndex(new HashingEmbedder(64), directory.toString());
+    }
+
+    private static Bug bug(long id, String title, LocalDateTime updatedAt) {
+        return Bug.builder().id(id).title(title).description("details").createdAt(CREATED).updatedAt(updatedAt).build();
+    }
+
+    /**
+     * Index two bugs, checkpoint, then update one so the change is only in the delta log
+     */
+    private void writeState() throws IOException {
+        LocalSimilarityIndex index = open();
+        index.rebuild(List.of());
+        index.index(bug(1, "Login fails", CREATED));
+        index.index(bug(2, "Export times out", CREATED));
+        index.checkpoint();
+        index.index(bug(2, "Export times out for large lists", CREATED.plusMinutes(5)));
+        index.close();
+    }
+
+    @Test
+    void restoresWhenTheWatermarkMatchesTheDatabase() throws IOException {
+        writeState();
+
+        LocalSimilarityIndex restored = open();
+        assertTrue(restored.restore(2, CREATED.plusMinutes(5)));
+        assertEquals(2, restored.size());
+        assertEquals(2L, restored.search("export large lists", 1, 0.0).get(0).getId());
+        restored.close();
+    }
+
+    @Test
+    void rebuildsWhenTheDatabaseHasANewerChange() throws IOException {
+        writeState();
+
+        // Same number of bugs, but an update the log never saw
+        LocalSimilarityIndex restored = open();
+        assertFalse(restored.restore(2, CREATED.plusMinutes(6)));
+        restored.close();
+    }
+
+    @Test
+    void rebuildsWhenABugWasDeletedUnseen() throws IOException {
+        writeState();
+
+        LocalSimilarityIndex restored = open();
+        assertFalse(restored.restore(1, CREATED.plusMinutes(5)));
+        restored.close();
+    }
+
+    @Test
+    void heapRowsAreScoredFromTheLoggedFloats() throws IOException {
+        LocalSimilarityIndex index = open();
+        index.rebuild(List.of(bug(1, "Login fails", CREATED)));
+        // Exact cosine of a vector with itself, not the int8 approximation
+        assertEquals(1.0, index.similarity(index.embed("Login fails details"), 1), 1e-6);
+
+        index.index(bug(2, "Export times out", CREATED));
+        assertEquals(1.0, index.similarity(index.embed("Export times out details"), 2), 1e-6);
+        assertEquals(2L, index.search("export times out", 1, 0.0).get(0).getId());
+        index.close();
+    }
+
+    @Test
+    void withoutASnapshotDirectoryHeapRowsAreScoredFromTheirCodes() throws IOException {
+        LocalSimilarityIndex index = new LocalSimilarityIndex(new HashingEmbedder(64), "");
+        index.rebuild(List.of(bug(1, "Login fails", CREATED)));
+
+        assertEquals(1.0, index.similarity(index.embed("Login fails details"), 1), 0.02);
+    }
+
+    @Test
+    void withoutASnapshotDirectoryNothingIsRestored() throws IOException {
+        LocalSimilarityIndex index = new LocalSimilarityIndex(new HashingEmbedder(64), "");
+        assertFalse(index.restore(0, null));
+    }
+}
@@ -0,0 +1,148 @@
+package com.bugtracker.backend.search;
+
+import com.bugtracker.backend.model.BugEmbedding;
+import com.bugtracker.backend.repository.BugEmbeddingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemoteEmbeddingIndexTest {
+
+    private static final String MODEL = "remote-v1";
+
+    private final Map<Long, BugEmbedding> rows = new TreeMap<>();
+    private Runnable duringLoad = () -> { };
+    private RemoteEmbeddingIndex index;
+
+    /**
+     * Repository stub serving {@link #rows}; the first page runs {@link #duringLoad} before returning
+     */
+    private BugEmbeddingRepository repository() {
+        return (BugEmbeddingRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {BugEmbeddingRepository.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "findAll": {
+                        Pageable pageable = (Pageable) args[0];
+                        List<BugEmbedding> all = new ArrayList<>(rows.values());
+                        int from = (int) Math.min(pageable.getOffset(), all.size());
+                        int to = Math.min(from + pageable.getPageSize(), all.size());
+                        if (from == 0) {
+                            duringLoad.run();
+                        }
+                        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+                    }
+                    case "findAllById": {
+                        List<BugEmbedding> found = new ArrayList<>();
+                        for (Object id : (Iterable<?>) args[0]) {
+                            BugEmbedding row = rows.get(id);
+                            if (row != null) {
+                                found.add(row);
+                            }
+                        }
+                        return found;
+                    }
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private static float[] unit(float... values) {
+        double norm = 0;
+        for (float v : values) {
+            norm += v * v;
+        }
+        float[] unit = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            unit[i] = (float) (values[i] / Math.sqrt(norm));
+        }
+        return unit;
+    }
+
+    private void store(long bugId, float[] vector, boolean withVector) {
+        QuantizedVector codes = QuantizedVector.quantize(vector);
+        rows.put(bugId, BugEmbedding.builder().bugId(bugId).modelVersion(MODEL).dimensions(vector.length)
+            .scale(codes.getScale()).offset(codes.getOffset()).codes(codes.getCodes())
+            .vector(withVector ? RemoteEmbeddingIndex.toBytes(vector) : null).build());
+    }
+
+    private RemoteEmbeddingIndex loaded() {
+        index = new RemoteEmbeddingIndex(repository());
+        index.rebuild(Collections.emptyList());
+        return index;
+    }
+
+    @Test
+    void candidatesAreReRankedWithTheStoredVectors() {
+        float[] query = unit(1, 0.2f, 0.1f, 0, 0.3f, 0, 0, 0.05f);
+        float[][] vectors = new float[20][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = unit(1, i * 0.1f, 0.1f, i % 3, 0.3f, 0, i * 0.05f, 0.05f);
+            store(i, vectors[i], true);
+        }
+
+        List<ScoredId> result = loaded().search(query, MODEL, 3, 0.0, null);
+        assertEquals(3, result.size());
+        List<ScoredId> expected = new ArrayList<>();
+        for (int i = 0; i < vectors.length; i++) {
+            expected.add(new ScoredId(i, VectorIndex.dot(query, vectors[i])));
+        }
+        expected.sort(Comparator.comparingDouble(ScoredId::getScore).reversed());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected.get(i).getId(), result.get(i).getId());
+            assertEquals(expected.get(i).getScore(), result.get(i).getScore(), 1e-6);
+        }
+    }
+
+    @Test
+    void rowsWithoutAVectorKeepTheApproximateScore() {
+        float[] vector = unit(0.3f, 0.9f, 0.1f, 0.2f);
+        store(1, vector, false);
+        float[] query = unit(0.2f, 1, 0, 0.1f);
+
+        List<ScoredId> result = loaded().search(query, MODEL, 5, 0.0, null);
+        assertEquals(1, result.size());
+        assertEquals(index.similarity(query, MODEL, 1), result.get(0).getScore(), 1e-9);
+        assertTrue(index.search(query, "remote-v2", 5, 0.0, null).isEmpty());
+    }
+
+    @Test
+    void onlyEligibleIdsAreSearchedAndTheThresholdUsesExactScores() {
+        store(1, unit(1, 0, 0, 0), true);
+        store(2, unit(0.9f, 0.1f, 0, 0), true);
+        store(3, unit(0, 1, 0, 0), true);
+        IdBitmap eligible = new IdBitmap();
+        eligible.add(2);
+        eligible.add(3);
+
+        List<ScoredId> result = loaded().search(unit(1, 0, 0, 0), MODEL, 5, 0.5, eligible);
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(0).getId());
+    }
+
+    @Test
+    void updatesDuringARebuildSurviveTheSwap() {
+        store(1, unit(1, 0, 0, 0), true);
+        store(2, unit(0, 1, 0, 0), true);
+        index = new RemoteEmbeddingIndex(repository());
+        float[] added = unit(0, 0, 1, 0);
+        duringLoad = () -> {
+            index.putAfterCommit(3, MODEL, QuantizedVector.quantize(added));
+            index.removeAfterCommit(2);
+        };
+
+        index.rebuild(Collections.emptyList());
+        assertEquals(2, index.size());
+        assertTrue(index.similarity(added, MODEL, 3) > 0.9);
+        assertEquals(0.0, index.similarity(unit(0, 1, 0, 0), MODEL, 2));
+    }
+}
@@ -0,0 +1,220 @@
+package com.bugtracker.backend.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorSnapshotStoreTest {
+
+    private static final int DIMENSIONS = 8;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Records the ids of replayed puts and removes, in order
+     */
+    private static final class Recorder implements VectorSnapshotStore.DeltaHandler {
+        final List<Long> puts = new ArrayList<>();
+        final List<Long> removes = new ArrayList<>();
+        final List<Long> locators = new ArrayList<>();
+        long latestModification;
+
+        @Override
+        public void put(long id, long modifiedAt, int[] buckets, float[] vector, long locator) {
+            assertEquals(DIMENSIONS, vector.length);
+            assertEquals((float) id, vector[0]);
+            puts.add(id);
+            locators.add(locator);
+            latestModification = Math.max(latestModification, modifiedAt);
+        }
+
+        @Override
+        public void remove(long id) {
+            removes.add(id);
+        }
+    }
+
+    private static float[] vector(long id) {
+        float[] vector = new float[DIMENSIONS];
+        vector[0] = id;
+        return vector;
+    }
+
+    private VectorSnapshotStore openStore() throws IOException {
+        return new VectorSnapshotStore(directory, DIMENSIONS);
+    }
+
+    private Recorder replay(long fromGeneration) throws IOException {
+        Recorder recorder = new Recorder();
+        try (VectorSnapshotStore store = openStore()) {
+            store.replay(fromGeneration, recorder);
+        }
+        return recorder;
+    }
+
+    private Path log(long generation) {
+        return directory.resolve("delta-" + generation + ".log");
+    }
+
+    @Test
+    void tornTailIsCutOffAndLaterAppendsSurvive() throws IOException {
+        try (VectorSnapshotStore store = openStore()) {
+            store.replay(0, new Recorder());
+            store.appendPut(1, 100, new int[] {1, 2}, vector(1));
+            store.appendRemove(7);
+            store.appendPut(2, 200, new int[] {3}, vector(2));
+        }
+        long intact = Files.size(log(0));
+        // Crash in the middle of the last record
+        try (FileChannel channel = FileChannel.open(log(0), StandardOpenOption.WRITE)) {
+            channel.truncate(intact - 5);
+        }
+
+        try (VectorSnapshotStore store = openStore()) {
+            Recorder recorder = new Recorder();
+            assertEquals(2, store.replay(0, recorder));
+            assertEquals(List.of(1L), recorder.puts);
+            assertEquals(List.of(7L), recorder.removes);
+            assertEquals(100, recorder.latestModification);
+            store.appendPut(3, 300, new int[0], vector(3));
+        }
+
+        Recorder recorder = replay(0);
+        assertEquals(List.of(1L, 3L), recorder.puts);
+        assertEquals(300, recorder.latestModification);
+    }
+
+    @Test
+    void corruptRecordEndsReplayAndIsTruncated() throws IOException {
+        long firstRecordEnd;
+        try (VectorSnapshotStore store = openStore()) {
+            store.replay(0, new Recorder());
+            store.appendPut(1, 100, new int[] {1}, vector(1));
+            firstRecordEnd = Files.size(log(0));
+            store.appendPut(2, 200, new int[] {2}, vector(2));
+            store.appendPut(3, 300, new int[] {3}, vector(3));
+        }
+        // Flip a byte inside the second record's payload
+        try (FileChannel channel = FileChannel.open(log(0), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, firstRecordEnd + 12);
+            one.put(0, (byte) (one.get(0) ^ 0xFF)).rewind();
+            channel.write(one, firstRecordEnd + 12);
+        }
+
+        Recorder recorder = replay(0);
+
+        assertEquals(List.of(1L), recorder.puts);
+        assertEquals(firstRecordEnd, Files.size(log(0)));
+    }
+
+    @Test
+    void loggedFloatsAreReadBackByLocator() throws IOException {
+        long first;
+        long second;
+        try (VectorSnapshotStore store = openStore()) {
+            store.replay(0, new Recorder());
+            first = store.appendPut(1, 100, new int[] {1, 2, 3}, vector(1));
+            second = store.appendPut(2, 200, new int[0], vector(2));
+
+            float[] read = new float[DIMENSIONS];
+            assertTrue(store.read(second, read));
+            assertArrayEquals(vector(2), read);
+            assertTrue(store.read(first, read));
+            assertArrayEquals(vector(1), read);
+        }
+
+        try (VectorSnapshotStore store = openStore()) {
+            Recorder recorder = new Recorder();
+            store.replay(0, recorder);
+            assertEquals(List.of(first, second), recorder.locators);
+
+            // Once a checkpoint covers the log, its floats are gone from there
+            store.writeSnapshot(store.rotate(), 200, new VectorIndex(DIMENSIONS).view(), new int[DIMENSIONS], 0, Map.of());
+            assertFalse(store.read(first, new float[DIMENSIONS]));
+        }
+    }
+
+    @Test
+    void checkpointCoversOlderLogsAndNewerOnesAreReplayed() throws IOException {
+        try (VectorSnapshotStore store = openStore()) {
+            VectorIndex index = new VectorIndex(DIMENSIONS, store);
+            store.replay(0, new Recorder());
+            index.put(1, vector(1), store.appendPut(1, 100, new int[] {1}, vector(1)));
+            index.put(2, vector(2), store.appendPut(2, 200, new int[] {2}, vector(2)));
+
+            long generation = store.rotate();
+            VectorIndex.View view = index.view();
+            store.appendPut(3, 300, new int[] {3}, vector(3));
+
+            int[] frequencies = new int[DIMENSIONS];
+            frequencies[1] = 1;
+            frequencies[2] = 1;
+            MappedVectors written = store.writeSnapshot(generation, 200, view, frequencies, 2,
+                Map.of(1L, new int[] {1}, 2L, new int[] {2}));
+            assertEquals(2, written.size());
+            assertEquals(1, generation);
+        }
+
+        assertFalse(Files.exists(log(0)), "log covered by the checkpoint is deleted");
+        assertTrue(Files.exists(log(1)));
+
+        try (VectorSnapshotStore store = openStore()) {
+            VectorSnapshotStore.Loaded loaded = store.load();
+            assertEquals(1, loaded.generation);
+            assertEquals(200, loaded.watermark);
+            assertEquals(2, loaded.documentCount);
+            assertArrayEquals(new int[] {2}, loaded.contributions.get(2L));
+            float[] row = new float[DIMENSIONS];
+            loaded.vectors.read(loaded.vectors.rowOf(2), row);
+            assertArrayEquals(vector(2), row);
+
+            Recorder recorder = new Recorder();
+            assertEquals(1, store.replay(loaded.generation, recorder));
+            assertEquals(List.of(3L), recorder.puts);
+        }
+    }
+
+    @Test
+    void rejectsSnapshotsOfAnOlderFormatVersion() throws IOException {
+        VectorIndex index = new VectorIndex(DIMENSIONS);
+        index.put(1, vector(1));
+        try (VectorSnapshotStore store = openStore()) {
+            store.replay(0, new Recorder());
+            store.writeSnapshot(store.rotate(), 100, index.view(), new int[DIMENSIONS], 1, Map.of());
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve("vectors.snap"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 1), 4);
+        }
+
+        try (VectorSnapshotStore store = openStore()) {
+            IOException error = assertThrows(IOException.class, store::load);
+            assertTrue(error.getMessage().contains("version 1"), error.getMessage());
+        }
+    }
+
+    @Test
+    void rejectsSnapshotsOfOtherDimensions() throws IOException {
+        try (VectorSnapshotStore store = openStore()) {
+            store.replay(0, new Recorder());
+            store.writeSnapshot(store.rotate(), 0, new VectorIndex(DIMENSIONS).view(), new int[DIMENSIONS], 0, Map.of());
+        }
+
+        try (VectorSnapshotStore store = new VectorSnapshotStore(directory, DIMENSIONS * 2)) {
+            assertThrows(IOException.class, store::load);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.bugtracker.backend.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000L;
+
+    private long now = 1000 * MS;
+
+    /**
+     * Fill every slot, then complete them all with the given latency
+     */
+    private void saturate(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+        int granted = 0;
+        while (limiter.tryAcquire()) {
+            granted++;
+        }
+        for (int i = 0; i < granted; i++) {
+            now += MS;
+            limiter.release(latencyNanos, false, now);
+        }
+    }
+
+    @Test
+    void slotsAreRefusedAtTheLimitAndReturnedOnRelease() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release(10 * MS, false, now);
+        assertEquals(1, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void limitGrowsWhileSaturatedAndFastUpToTheMaximum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 2.0, 0);
+
+        saturate(limiter, 10 * MS);
+        assertEquals(4, limiter.getLimit());
+        for (int i = 0; i < 10; i++) {
+            saturate(limiter, 10 * MS);
+        }
+        assertTrue(limiter.getLimit() > 4, "limit " + limiter.getLimit());
+
+        for (int i = 0; i < 200; i++) {
+            saturate(limiter, 10 * MS);
+        }
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limitDoesNotGrowWhenMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 2.0, 0);
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(limiter.tryAcquire());
+            now += MS;
+            limiter.release(10 * MS, false, now);
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void slowCompletionsBackOffOncePerBaselineLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 2.0, 0);
+        limiter.tryAcquire();
+        limiter.release(10 * MS, false, now);
+        assertEquals(10 * MS, limiter.getBaselineLatencyNanos());
+
+        limiter.tryAcquire();
+        limiter.release(100 * MS, false, now);
+        assertEquals(9, limiter.getLimit());
+
+        // A second slow completion within one baseline latency is the same congestion signal
+        limiter.tryAcquire();
+        limiter.release(100 * MS, false, now + 5 * MS);
+        assertEquals(9, limiter.getLimit());
+
+        now += 50 * MS;
+        limiter.tryAcquire();
+        limiter.release(100 * MS, false, now);
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void failuresBackOffDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 3, 10, 2.0, 0);
+
+        for (int i = 0; i < 50; i++) {
+            now += 1000 * MS;
+            assertTrue(limiter.tryAcquire());
+            limiter.release(10 * MS, true, now);
+        }
+        assertEquals(3, limiter.getLimit());
+    }
+}
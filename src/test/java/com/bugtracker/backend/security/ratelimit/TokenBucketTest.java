@@ -0,0 +1,55 @@
+package com.bugtracker.backend.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void burstIsGrantedThenTheCallerIsToldHowLongToWait() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(100 * MS, bucket.tryAcquire(0));
+        // A refused request does not consume a token
+        assertEquals(40 * MS, bucket.tryAcquire(60 * MS));
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(0);
+        }
+
+        assertEquals(0, bucket.tryAcquire(100 * MS));
+        assertTrue(bucket.tryAcquire(100 * MS) > 0);
+        assertEquals(0, bucket.tryAcquire(200 * MS));
+    }
+
+    @Test
+    void idleTimeDoesNotBankMoreThanTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        long later = 10_000 * MS;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void bucketIsIdleOnceFullyRefilled() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        assertTrue(bucket.isIdle(0));
+
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        assertFalse(bucket.isIdle(199 * MS));
+        assertTrue(bucket.isIdle(200 * MS));
+    }
+}